@@ -0,0 +1,162 @@
+package com.jogos;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Verificação de alocação no loop do jogo.
+ * <p>
+ * Ligado com {@code -Dreciclamack.allocBudget=<bytes>}: mede, com
+ * {@code ThreadMXBean.getThreadAllocatedBytes}, quantos bytes o código do frame aloca na
+ * thread do FX (só o corpo do {@code AnimationTimer}, não o pulso do JavaFX) e quantos a
+ * thread de simulação aloca por passo. Todo frame de jogo conta depois do aquecimento. Os
+ * frames com spawn, coleta ou perda mexem na cena e no texto do HUD e por isso têm um
+ * orçamento próprio, {@code -Dreciclamack.allocBudget.events=<bytes>} (padrão
+ * {@value #DEFAULT_EVENT_BUDGET}); os demais usam o orçamento principal. Todo frame ou
+ * janela de passos acima do seu orçamento conta como violação.
+ * <p>
+ * Com {@code -Dreciclamack.allocCheck.frames=N} depois de N frames medidos imprime o
+ * relatório e encerra o processo com código 0 (dentro do orçamento) ou 1 (houve violação).
+ * É uma verificação extra, com o jogo inteiro e um display; a regressão da simulação em CI
+ * é o {@code SimulationAllocationTest}, que roda no {@code mvn test}.
+ */
+public final class AllocationMonitor {
+
+    private static final int WARMUP_FRAMES = 300;
+    private static final long REPORT_INTERVAL_NANOS = 10_000_000_000L;
+    private static final long DEFAULT_EVENT_BUDGET = 16 * 1024;
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final long budget;
+    private final long eventBudget;
+    private final long exitAfterFrames;
+
+    private long frameStartBytes;
+    private long warmup = WARMUP_FRAMES;
+    private long frames = 0;
+    private long frameBytes = 0;
+    private long worstFrame = 0;
+    private long frameViolations = 0;
+
+    // frames com spawn, coleta ou perda
+    private long eventFrames = 0;
+    private long eventBytes = 0;
+    private long worstEvent = 0;
+    private long eventViolations = 0;
+
+    private long simThreadId = -1;
+    private long simStartBytes = -1;
+    private long simStartSteps = 0;
+    private long simBytes = 0;
+    private long simSteps = 0;
+    private long simViolations = 0;
+
+    private long lastReport = 0;
+
+    private AllocationMonitor(com.sun.management.ThreadMXBean threads, long budget, long eventBudget, long exitAfterFrames) {
+        this.threads = threads;
+        this.budget = budget;
+        this.eventBudget = eventBudget;
+        this.exitAfterFrames = exitAfterFrames;
+    }
+
+    /**
+     * Cria o monitor se {@code reciclamack.allocBudget} estiver definido e a JVM suportar
+     * a medição; caso contrário devolve null.
+     */
+    public static AllocationMonitor fromSystemProperties() {
+        String value = System.getProperty("reciclamack.allocBudget");
+        String events = System.getProperty("reciclamack.allocBudget.events");
+        if (value == null || value.isBlank()) return null;
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean mx)
+                || !mx.isThreadAllocatedMemorySupported()) {
+            System.err.println("AllocationMonitor: medição de alocação por thread indisponível nesta JVM");
+            return null;
+        }
+        mx.setThreadAllocatedMemoryEnabled(true);
+        try {
+            long budget = Long.parseLong(value.trim());
+            long eventBudget = events == null || events.isBlank() ? DEFAULT_EVENT_BUDGET : Long.parseLong(events.trim());
+            long exitAfter = Long.getLong("reciclamack.allocCheck.frames", 0L);
+            return new AllocationMonitor(mx, budget, eventBudget, exitAfter);
+        } catch (NumberFormatException e) {
+            System.err.println("AllocationMonitor: orçamento inválido -> " + value + " / " + events);
+            return null;
+        }
+    }
+
+    /** Thread cuja alocação por passo também deve ser medida. */
+    public void watchSimulation(Thread simulationThread) {
+        simThreadId = simulationThread.getId();
+    }
+
+    public void beginFrame() {
+        frameStartBytes = threads.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Fecha a medição do frame.
+     * @param measured se o frame conta (só frames de jogo em andamento são medidos)
+     * @param event    se houve spawn, coleta ou perda no frame (orçamento de eventos)
+     * @param simSteps total de passos da simulação até agora
+     */
+    public void endFrame(boolean measured, boolean event, long simSteps) {
+        long bytes = threads.getCurrentThreadAllocatedBytes() - frameStartBytes;
+        if (!measured) return;
+        if (warmup > 0) {
+            if (--warmup == 0) markSimulation(simSteps);
+            return;
+        }
+
+        if (event) {
+            eventFrames++;
+            eventBytes += bytes;
+            if (bytes > worstEvent) worstEvent = bytes;
+            if (bytes > eventBudget) eventViolations++;
+        } else {
+            frames++;
+            frameBytes += bytes;
+            if (bytes > worstFrame) worstFrame = bytes;
+            if (bytes > budget) frameViolations++;
+        }
+        sampleSimulation(simSteps);
+
+        long now = System.nanoTime();
+        if (lastReport == 0) lastReport = now;
+        if (now - lastReport >= REPORT_INTERVAL_NANOS) {
+            lastReport = now;
+            report();
+        }
+        if (exitAfterFrames > 0 && frames + eventFrames >= exitAfterFrames) {
+            report();
+            System.exit(frameViolations == 0 && eventViolations == 0 && simViolations == 0 ? 0 : 1);
+        }
+    }
+
+    private void markSimulation(long steps) {
+        if (simThreadId < 0) return;
+        simStartBytes = threads.getThreadAllocatedBytes(simThreadId);
+        simStartSteps = steps;
+    }
+
+    private void sampleSimulation(long steps) {
+        if (simStartBytes < 0 || steps == simStartSteps) return;
+        long now = threads.getThreadAllocatedBytes(simThreadId);
+        long bytes = now - simStartBytes;
+        long n = steps - simStartSteps;
+        if (bytes > budget * n) simViolations++;
+        simBytes += bytes;
+        simSteps += n;
+        simStartBytes = now;
+        simStartSteps = steps;
+    }
+
+    public void report() {
+        if (frames + eventFrames == 0) return;
+        System.out.printf("Alocação: %d frames, média %.1f B/frame, pior %d B, %d acima de %d B"
+                        + " | com eventos: %d frames, média %.1f B/frame, pior %d B, %d acima de %d B"
+                        + " | simulação: %d passos, média %.1f B/passo, %d janelas acima%n",
+                frames, frames == 0 ? 0.0 : frameBytes / (double) frames, worstFrame, frameViolations, budget,
+                eventFrames, eventFrames == 0 ? 0.0 : eventBytes / (double) eventFrames, worstEvent, eventViolations, eventBudget,
+                simSteps, simSteps == 0 ? 0.0 : simBytes / (double) simSteps, simViolations);
+    }
+}
@@ -1,55 +1,248 @@
 package com.jogos;
 
 import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Node;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.layout.Pane;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.shape.Rectangle;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Fundo em parallax com várias camadas.
+ * <p>
+ * A imagem de fundo é cortada em faixas horizontais (nuvens, horizonte, primeiro plano).
+ * Cada faixa é decodificada uma única vez no tamanho em que é desenhada e vira uma textura
+ * pequena; a rolagem só muda a posição X de ImageViews que compartilham essa textura, então
+ * nenhuma imagem de tela cheia é reenviada à GPU. As cópias são alternadas com espelhamento
+ * horizontal, o que torna qualquer faixa "ladrilhável" sem emenda visível.
+ */
 public class AnimatedBackground {
-    private final ImageView imageView;
-    private final Image[] frames;
-    private int frame = 0;
+
+    // faixas como fração da altura da imagem: [topo, base)
+    private static final double[] BAND_EDGES = { 0.0, 0.30, 0.72, 1.0 };
+    // velocidade de cada camada em larguras de tela por segundo (mais ao fundo = mais lenta)
+    private static final double[] SPEEDS = { 0.006, 0.012, 0.024 };
+    // camadas distantes podem ser decodificadas em resolução menor
+    private static final double[] DECODE_SCALES = { 0.5, 1.0, 1.0 };
+    private static final int TILES = 3; // normal, espelhada, normal
+    // deslocamento de cada camada por pixel de câmera no mundo largo (parallax)
+    private static final double[] CAMERA_PARALLAX = { 0.1, 0.25, 0.5 };
+
+    private final Group root = new Group();
+    private final String resourceName;
+    private final String url;
+    private final double width;
+    private final double height;
+    private final ImageView[][] tiles = new ImageView[SPEEDS.length][TILES];
+    private final double[] offsets = new double[SPEEDS.length];
+    private double cameraX = 0;
+
     private long lastFrame = 0;
-    private final long frameDelay = 300_000_000; // 300ms por frame (~3fps)
+    private boolean manualClock = false;
     private final AnimationTimer timer;
 
+    // tamanho em pixels em que as faixas atuais foram decodificadas
+    private int decodedW;
+    private int decodedH;
+    private int requestedW;
+    private int requestedH;
+    private int rebuildGeneration = 0;
+
     public AnimatedBackground(String dirPath, double width, double height) {
-        // Carrega as duas imagens da pasta (ordenadas)
+        // usa o primeiro frame da pasta como fonte das camadas
         File dir = new File("src/main/resources/" + dirPath);
         File[] files = dir.listFiles((d, name) -> name.endsWith(".png"));
         if (files == null || files.length == 0)
             throw new RuntimeException("Nenhuma imagem encontrada em " + dirPath);
         Arrays.sort(files);
 
-        frames = new Image[files.length];
-        for (int i = 0; i < files.length; i++) {
-            frames[i] = new Image(files[i].toURI().toString(), width, height, false, true);
+        this.resourceName = dirPath + "/" + files[0].getName();
+        this.url = files[0].toURI().toString();
+        this.width = width;
+        this.height = height;
+
+        for (int layer = 0; layer < SPEEDS.length; layer++) {
+            double top = Math.round(BAND_EDGES[layer] * height);
+            double bandH = Math.round(BAND_EDGES[layer + 1] * height) - top;
+            for (int t = 0; t < TILES; t++) {
+                ImageView v = new ImageView();
+                v.setFitWidth(width);
+                v.setFitHeight(bandH);
+                v.setPreserveRatio(false);
+                v.setSmooth(true);
+                v.setLayoutY(top);
+                if (t == 1) v.setScaleX(-1); // espelhada: emenda sem costura
+                tiles[layer][t] = v;
+                root.getChildren().add(v);
+            }
         }
+        root.setClip(new Rectangle(width, height));
 
-        imageView = new ImageView(frames[0]);
-        imageView.setFitWidth(width);
-        imageView.setFitHeight(height);
-        imageView.setPreserveRatio(false);
-        imageView.setSmooth(true);
+        Image source = ImageLoader.load(resourceName, width, height);
+        if (source == null) source = new Image(url, width, height, false, true);
+        applyBands(sliceBands(source));
+        decodedW = requestedW = (int) Math.round(width);
+        decodedH = requestedH = (int) Math.round(height);
+        layoutTiles();
 
-        // Timer da animação
         timer = new AnimationTimer() {
             @Override
             public void handle(long now) {
-                if (now - lastFrame > frameDelay) {
-                    frame = (frame + 1) % frames.length;
-                    imageView.setImage(frames[frame]);
-                    lastFrame = now;
-                }
+                if (lastFrame != 0) advance((now - lastFrame) / 1_000_000_000.0);
+                lastFrame = now;
             }
         };
         timer.start();
     }
 
-    public ImageView getView() {
-        return imageView;
+    /**
+     * Corta a imagem (já no tamanho de renderização) em uma textura por camada.
+     * Camadas com DECODE_SCALE < 1 são reamostradas para uma textura menor.
+     */
+    private static Image[] sliceBands(Image full) {
+        PixelReader reader = full.getPixelReader();
+        int w = (int) full.getWidth();
+        int h = (int) full.getHeight();
+        Image[] bands = new Image[SPEEDS.length];
+        for (int layer = 0; layer < SPEEDS.length; layer++) {
+            int top = (int) Math.round(BAND_EDGES[layer] * h);
+            int bandH = Math.max(1, (int) Math.round(BAND_EDGES[layer + 1] * h) - top);
+            WritableImage band = new WritableImage(reader, 0, top, w, Math.min(bandH, h - top));
+            double scale = DECODE_SCALES[layer];
+            bands[layer] = scale < 1.0 ? downscale(band, scale) : band;
+        }
+        return bands;
+    }
+
+    private static Image downscale(WritableImage src, double scale) {
+        int sw = (int) src.getWidth();
+        int sh = (int) src.getHeight();
+        int dw = Math.max(1, (int) Math.round(sw * scale));
+        int dh = Math.max(1, (int) Math.round(sh * scale));
+        PixelReader r = src.getPixelReader();
+        WritableImage dst = new WritableImage(dw, dh);
+        PixelWriter pw = dst.getPixelWriter();
+        for (int y = 0; y < dh; y++) {
+            int sy = Math.min(sh - 1, (int) ((y + 0.5) * sh / dh));
+            for (int x = 0; x < dw; x++) {
+                int sx = Math.min(sw - 1, (int) ((x + 0.5) * sw / dw));
+                pw.setArgb(x, y, r.getArgb(sx, sy));
+            }
+        }
+        return dst;
+    }
+
+    private void applyBands(Image[] bands) {
+        for (int layer = 0; layer < SPEEDS.length; layer++)
+            for (int t = 0; t < TILES; t++)
+                tiles[layer][t].setImage(bands[layer]);
+    }
+
+    private void advance(double seconds) {
+        double period = width * 2; // normal + espelhada
+        for (int layer = 0; layer < SPEEDS.length; layer++) {
+            offsets[layer] = (offsets[layer] + SPEEDS[layer] * width * seconds) % period;
+        }
+        layoutTiles();
+    }
+
+    private void layoutTiles() {
+        double period = width * 2;
+        for (int layer = 0; layer < SPEEDS.length; layer++) {
+            double o = (offsets[layer] + cameraX * CAMERA_PARALLAX[layer]) % period;
+            for (int t = 0; t < TILES; t++) {
+                tiles[layer][t].setLayoutX(t * width - o);
+            }
+        }
+    }
+
+    /**
+     * Redecodifica as faixas no novo tamanho em pixels em uma thread de fundo.
+     * O tamanho lógico das ImageViews não muda; as faixas antigas continuam sendo exibidas
+     * até as novas ficarem prontas.
+     */
+    public void rebuildAsync(double pixelWidth, double pixelHeight) {
+        int w = Math.max(1, (int) Math.round(pixelWidth));
+        int h = Math.max(1, (int) Math.round(pixelHeight));
+        requestedW = w;
+        requestedH = h;
+        if (w == decodedW && h == decodedH) return;
+
+        int generation = ++rebuildGeneration;
+        CompletableFuture.supplyAsync(() -> {
+            Image full = new Image(url, w, h, false, true);
+            return full.isError() ? null : sliceBands(full);
+        }).thenAccept(bands -> Platform.runLater(() -> {
+            if (bands == null || generation != rebuildGeneration) return;
+            applyBands(bands);
+            decodedW = w;
+            decodedH = h;
+        }));
+    }
+
+    /**
+     * Recarga de assets: se o arquivo alterado é a fonte das camadas, redecodifica as faixas
+     * (em segundo plano, como no redimensionamento).
+     */
+    public void reload(String folder, String fileName) {
+        if (!resourceName.endsWith(folder + "/" + fileName)) return;
+        decodedW = 0;
+        decodedH = 0;
+        rebuildAsync(requestedW, requestedH);
+    }
+
+    /**
+     * Câmera do mundo largo: as camadas andam uma fração do deslocamento (parallax). As
+     * mesmas três cópias por camada são reaproveitadas, qualquer que seja a largura do mundo.
+     */
+    public void setCameraX(double x) {
+        if (x == cameraX) return;
+        cameraX = x;
+        layoutTiles();
+    }
+
+    public void setSmooth(boolean smooth) {
+        for (ImageView[] layer : tiles)
+            for (ImageView v : layer) v.setSmooth(smooth);
+    }
+
+    /** Para o timer de animação (nenhum pulso é pedido enquanto parado). */
+    public void pause() {
+        timer.stop();
+        lastFrame = 0;
+    }
+
+    public void resume() {
+        if (!manualClock) timer.start();
+    }
+
+    /**
+     * Relógio externo (exportação de vídeo): o timer fica parado e a rolagem só anda com
+     * {@link #advanceBy}.
+     */
+    public void setManualClock(boolean manual) {
+        manualClock = manual;
+        if (manual) pause();
+    }
+
+    public void advanceBy(double seconds) {
+        advance(seconds);
+    }
+
+    /** Avança um segundo de rolagem manualmente (usado em cadência lenta enquanto pausado). */
+    public void step() {
+        advance(1.0);
+    }
+
+    public Node getView() {
+        return root;
     }
 }
@@ -1,63 +1,94 @@
 package com.jogos;
 
-import javafx.animation.AnimationTimer;
 import javafx.scene.Group;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Personagem animado. Os frames de cada pasta são decodificados uma única vez e
+ * compartilhados por todos os sprites (no co-op as duas lixeiras usam as mesmas imagens);
+ * não há timer próprio: o loop do jogo avança todos com {@link #advance}.
+ */
 public class AnimatedSprite {
+
+    // nome da pasta -> frames e nomes de arquivo na mesma ordem (nomes para recarga em desenvolvimento)
+    private static final Map<String, List<Image>> framesByFolder = new HashMap<>();
+    private static final Map<String, List<String>> namesByFolder = new HashMap<>();
+
     private final Group node;
     private final ImageView imageView;
     private final double height;
-    private final List<Image> empurrando = new ArrayList<>();
-    private final List<Image> puxando = new ArrayList<>();
-    private final List<Image> parado = new ArrayList<>();
+    private final List<Image> empurrando;
+    private final List<Image> puxando;
+    private final List<Image> parado;
     private List<Image> atual;
 
     private int frame = 0;
     private long lastFrame = 0;
     private final long frameDelay = 180_000_000; // 180ms por frame (mais lento e suave)
 
-    private final AnimationTimer timer;
-
     public AnimatedSprite(String dirEmpurrando, String dirParado, String dirPuxando, double height) {
         this.height = height;
-        loadFrames(empurrando, dirEmpurrando);
-        loadFrames(puxando, dirPuxando);
-        loadFrames(parado, dirParado);
+        empurrando = frames(dirEmpurrando);
+        puxando = frames(dirPuxando);
+        parado = frames(dirParado);
         atual = parado;
 
         imageView = new ImageView(atual.get(0));
         imageView.setFitHeight(height);
         imageView.setPreserveRatio(true);
         node = new Group(imageView);
-
-        timer = new AnimationTimer() {
-            @Override
-            public void handle(long now) {
-                if (now - lastFrame > frameDelay) {
-                    frame = (frame + 1) % atual.size();
-                    imageView.setImage(atual.get(frame));
-                    lastFrame = now;
-                }
-            }
-        };
-        timer.start();
     }
 
-    private void loadFrames(List<Image> list, String dirPath) {
+    private static List<Image> frames(String dirPath) {
         File dir = new File("src/main/resources/" + dirPath);
-        if (!dir.exists() || !dir.isDirectory()) return;
+        List<Image> cached = framesByFolder.get(dir.getName());
+        if (cached != null) return cached;
+
+        List<Image> list = new ArrayList<>();
+        if (!dir.exists() || !dir.isDirectory()) return list;
         File[] files = dir.listFiles((d, name) -> name.endsWith(".png"));
-        if (files == null) return;
+        if (files == null) return list;
 
         // ordena e carrega
         java.util.Arrays.sort(files);
-        for (File f : files) list.add(new Image(f.toURI().toString()));
+        List<String> names = new ArrayList<>();
+        for (File f : files) {
+            list.add(new Image(f.toURI().toString()));
+            names.add(f.getName());
+        }
+        framesByFolder.put(dir.getName(), list);
+        namesByFolder.put(dir.getName(), names);
+        return list;
+    }
+
+    /**
+     * Troca um frame já carregado (recarga de assets) para todos os sprites. Arquivos novos
+     * na pasta são ignorados; cada sprite passa a mostrar o novo frame na próxima troca.
+     * @return true se o frame pertence a alguma animação carregada
+     */
+    public static boolean replaceFrame(String folder, String fileName, Image image) {
+        List<String> names = namesByFolder.get(folder);
+        if (names == null) return false;
+        int index = names.indexOf(fileName);
+        if (index < 0) return false;
+        framesByFolder.get(folder).set(index, image);
+        return true;
+    }
+
+    /** Avança a animação até o instante {@code now} (nanoTime do pulso). */
+    public void advance(long now) {
+        if (now - lastFrame > frameDelay) {
+            frame = (frame + 1) % atual.size();
+            imageView.setImage(atual.get(frame));
+            lastFrame = now;
+        }
     }
 
     public void play(String anim) {
@@ -68,6 +99,8 @@ public class AnimatedSprite {
         }
     }
 
+    public void setSmooth(boolean smooth) { imageView.setSmooth(smooth); }
+
     public Group getNode() { return node; }
     public double getHeight() { return height; }
 }
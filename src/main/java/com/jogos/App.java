@@ -1,66 +1,212 @@
 package com.jogos;
 
+import com.jogos.jfr.CollisionEvent;
+import com.jogos.jfr.FrameEvent;
+import com.jogos.jfr.GameRecording;
+import com.jogos.jfr.ItemSpawnEvent;
+import com.jogos.utils.Palette;
 import javafx.animation.AnimationTimer;
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.geometry.Rectangle2D;
+import javafx.scene.Group;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
-import javafx.scene.input.KeyCode;
+import javafx.scene.image.WritableImage;
 import javafx.scene.input.KeyCombination;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
+import javafx.scene.transform.Scale;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 public class App extends Application {
 
     private static final Path HIGH_SCORE_FILE = Path.of("highscore.txt");
+    private static final Path SESSION_FILE = Path.of("session.bin");
+    private static final double AUTOSAVE_SECONDS = 10.0;
 
     private StackPane rootStack;
     private Pane gamePane;
     private VBox mainMenuPane;
     private VBox optionsPane;
 
-    private ImageView groundImage;
+    private ChunkedLayer groundChunks;
     private Rectangle ground; // hitbox invisível do chão
     private AnimatedBackground animatedBackground;
 
     private HBox hud;
-    private Label scoreLabel;
-    private Label livesLabel;
+    private Label effectsLabel;
+    // último valor mostrado em cada texto do HUD (os de cada jogador ficam no Player)
+    private int hudHighScore = Integer.MIN_VALUE;
+    private int hudEffects = Integer.MIN_VALUE;
     private Label highScoreLabel;
 
-    private Collector collector;
+    // === Jogadores ===
+    // co-op local: o segundo jogador tem lixeira, vidas e placar próprios; itens e power-ups são comuns
+    private final Player[] players = new Player[Simulation.MAX_PLAYERS];
+    private int playerCount = 1;
+    private ParticleSystem particles;
     private final List<GameItem> items = new ArrayList<>();
-    private final Random rng = new Random();
+    private final Simulation simulation = new Simulation(512);
+    // itens removidos voltam para cá; em regime o spawn não cria nós novos
+    private final EnumMap<ItemType, ArrayDeque<GameItem>> itemPool = new EnumMap<>(ItemType.class);
+    {
+        for (ItemType t : ItemType.values()) itemPool.put(t, new ArrayDeque<>());
+    }
+    private boolean quietFrame; // frame sem spawn nem coleta/perda (os outros têm orçamento próprio no AllocationMonitor)
+    private final AllocationMonitor allocations = AllocationMonitor.fromSystemProperties(); // null = desligado
+    private final StatefulRandom rng = new StatefulRandom();
+    private long gameSeed; // semente da partida atual (ver seedGame)
 
+    // resolução lógica do mundo; a janela real é atendida por uma escala (worldScale)
     private double screenW;
     private double screenH;
+    private final Scale worldScale = new Scale(1, 1, 0, 0);
+    private final PauseTransition resizeDebounce = new PauseTransition(Duration.millis(250));
+
+    // === Mundo largo ===
+    // -Dreciclamack.worldScreens=N: o nível tem N telas de largura e a câmera segue o coletor
+    private final int worldScreens = Math.max(1, Integer.getInteger("reciclamack.worldScreens", 1));
+    private double worldW;
+    private double cameraX = 0;
+    private final Group worldLayer = new Group(); // chão, itens e coletor, em coordenadas do mundo
 
     private Stage primaryStage;
 
-    private boolean showingOptions = false;
-    private boolean inMenu = true;
+    private GameState state = GameState.MENU;
     private boolean showHitboxes = false;
 
-    private int score = 0;
-    private int lives = 3;
+    private AnimationTimer loop;
+    private long frameNow; // instante do frame atual do loop (pulso do JavaFX ou relógio da exportação)
+
+    // === Limite de FPS e qualidade adaptativa ===
+    private int targetFps = 60; // 0 = sem limite (processa todo pulso do JavaFX)
+    private final QualityController quality = new QualityController(frameBudgetNanos(60), this::applyQuality);
+    // -Dreciclamack.qualityLog=true: imprime cada troca de nível de qualidade
+    private static final boolean QUALITY_LOG = Boolean.getBoolean("reciclamack.qualityLog");
+    private double gameOverTimer = 0.0;
+
+    // em menu/pausa o loop fica parado; o fundo avança por este timer lento fora da thread do FX
+    private final ScheduledExecutorService idleTicker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "idle-ticker");
+        t.setDaemon(true);
+        return t;
+    });
+    private ScheduledFuture<?> idleTask;
+
     private int highScore = 0;
     private double spawnTimer = 0.0;
+    private double autosaveTimer = 0.0;
     private double spawnInterval = 1.0;
     private double itemFallSpeedFactor = 0.0025;
-
-    private boolean leftPressed = false;
-    private boolean rightPressed = false;
+    private int level = 0; // ondas de spawn desde o início da partida
+
+    // === Partida salva ===
+    private final SessionStore session = new SessionStore(SESSION_FILE);
+    private ByteBuffer savedSession; // corpo do snapshot lido na inicialização (null = nenhum)
+    private Button continueBtn;
+
+    private final Telemetry telemetry = Telemetry.fromSystemProperties(); // null = desligada
+
+    // === Power-ups e combo ===
+    // todos os efeitos temporizados passam pela mesma roda, que anda pelos passos da simulação
+    private static final int STEPS_PER_TICK = 6; // 0,05 s a 120 passos/s
+    private static final double TICK_SECONDS = (double) STEPS_PER_TICK / Simulation.STEPS_PER_SECOND;
+    private static final int COMBO_TIMEOUT = ItemType.values().length; // + índice do jogador: payload fora dos ordinais
+    private static final ItemType[] REGULAR_TYPES = { ItemType.METAL, ItemType.BATTERY, ItemType.PLASTIC, ItemType.REUSE };
+    private static final ItemType[] POWER_UP_TYPES = { ItemType.MAGNET, ItemType.SLOW_MOTION, ItemType.SHIELD, ItemType.WIDE_BIN };
+    private static final double POWER_UP_CHANCE = 0.06;
+    private final TimerWheel effects = new TimerWheel(64, 256, TICK_SECONDS, this::onTimerExpired);
+    private final int[] activeEffects = new int[ItemType.values().length]; // contagem por tipo de power-up
+    private final long[] shieldTimers = new long[16]; // fila FIFO dos timers de escudo ativos
+    private int shieldHead = 0;
+    private int shieldCount = 0;
+    private long effectSteps = -1; // passos da simulação já convertidos em ticks da roda (-1 = partida sem frame aplicado)
+    private long gameFrameBase = 0; // frames confirmados antes da partida atual (EVENT_FRAME até aqui é da anterior)
+    private long frameSnapshotStep = -1; // passo do snapshot lido no frame atual (-1 = nenhum)
+
+    // === Variantes de cor ===
+    // recoloridas uma vez na abertura (ImageLoader.loadVariant); na partida é só trocar a textura
+    private static final Palette P2_PALETTE = Palette.hueShift(-90);
+    private static final Palette[] ITEM_PALETTES = { null, Palette.hueShift(120), Palette.hueShift(240) };
+    private static final ItemType[] VARIANT_TYPES = { ItemType.METAL, ItemType.PLASTIC };
+    private int variantCounter = 0; // alterna as cores sem consumir o RNG salvo na sessão
+
+    // === Aquecimento durante a intro ===
+    private static final int WARM_ITEMS_PER_TYPE = 8; // por tela de mundo; power-ups usam 2
+    private static final int WARM_SIM_STEPS = 3000;   // ~25 s de jogo na Simulation descartável
+    private boolean warmedUp = false;
+
+    private final InputSystem input = new InputSystem(InputBindings.defaults());
+    // -Dreciclamack.inputStats=true: imprime a latência de entrada ao fim de cada partida
+    private static final boolean INPUT_STATS = Boolean.getBoolean("reciclamack.inputStats");
+    private final InputSystem.MoveStep moveStep = (dir1, dir2, fraction) -> {
+        if (state != GameState.PLAYING || autopilotDriving()) return;
+        if (playerCount == 1) {
+            players[0].collector.applyInput(Math.max(-1, Math.min(1, dir1 + dir2)), screenW, worldW, fraction);
+        } else {
+            // câmera compartilhada: nenhuma lixeira sai da tela no mundo largo
+            if (!players[0].isOut()) players[0].collector.applyInput(dir1, screenW, cameraX, cameraX + screenW, fraction);
+            if (!players[1].isOut()) players[1].collector.applyInput(dir2, screenW, cameraX, cameraX + screenW, fraction);
+        }
+    };
+
+    // === Modo demonstração ===
+    // depois de um tempo parado no menu o piloto automático joga sozinho até alguém tocar em algo
+    private static final int ATTRACT_IDLE_SECONDS = 30;
+    private static final double ATTRACT_MAX_SECONDS = 90.0;
+    private final Autopilot autopilot = new Autopilot();
+    // -Dreciclamack.autopilot=true: o piloto joga as partidas normais (jogador de referência)
+    private final boolean autopilotPlayer = Boolean.getBoolean("reciclamack.autopilot");
+    private boolean attractMode = false;
+    private int idleSeconds = 0;
+    private double attractTimer = 0.0;
+    private Label attractLabel;
+
+    // === Exportação de vídeo ===
+    // -Dreciclamack.export=pasta: sem mostrar a janela, refaz a partida gravada (ou o piloto joga a
+    // partida salva, ou uma nova com semente fixa) e cada frame vira um PNG numerado
+    private static final int EXPORT_FRAMES_PER_PULSE = 8;
+    private final String exportDir = System.getProperty("reciclamack.export");
+    private FrameExporter exporter; // null = jogo normal
+    private AnimationTimer exportTimer;
+    private WritableImage exportImage;
+    private int exportFps;
+    private int exportFrames;    // total pedido
+    private int exportFrame = 0; // próximo a renderizar
+    private long exportStart;    // origem do relógio sintético (ou da gravação)
+
+    // === Gravação e reprodução de partidas ===
+    // -Dreciclamack.replay=arquivo: cada partida de um jogador é gravada (semente, teclas e passos)
+    // e a exportação refaz a gravação em vez de deixar o piloto jogar
+    private final ReplayRecorder replayRecorder = ReplayRecorder.fromSystemProperties(); // null = desligado
+    private ReplayReader replay; // partida sendo refeita na exportação (null = nenhuma)
+    private final ArrayDeque<long[]> replayLatches = new ArrayDeque<>(); // {frame, passo em que entrou}
+    private long replayFrameBase;
+    private long replayStepBase;
+    private long replayFrameLimit; // último frame que a simulação pode aplicar
+    private boolean replayDiverged = false;
 
     // Altura "real" do chão
     private double visibleGroundHeight;
@@ -68,19 +214,37 @@ public class App extends Application {
     @Override
     public void start(Stage stage) {
         this.primaryStage = stage;
+        StartupTracer.mark("jvm");
 
         Rectangle2D bounds = Screen.getPrimary().getBounds();
         screenW = bounds.getWidth();
         screenH = bounds.getHeight();
+        if (exportDir != null) replay = loadExportReplay();
+        if (replay != null) {
+            // a partida só se repete igual no mesmo tamanho de mundo em que foi jogada
+            screenW = replay.getScreenWidth();
+            screenH = replay.getScreenHeight();
+        }
+        worldW = screenW * worldScreens;
+        if (replay != null && worldW != replay.getWorldWidth())
+            System.err.printf("Exportação: gravação feita com mundo de %.0f px, este tem %.0f px (use o mesmo reciclamack.worldScreens)%n",
+                    replay.getWorldWidth(), worldW);
 
         highScore = HighScoreManager.load(HIGH_SCORE_FILE);
+        HighScoreManager.loadRemoteAsync(best -> {
+            if (best > highScore) {
+                highScore = best;
+                updateHud();
+            }
+        });
 
         // === Inicializa sons ===
         SoundManager.init();
         SoundManager.playMusic();
 
         rootStack = new StackPane();
-        Scene scene = new Scene(rootStack, screenW, screenH);
+        Scene scene = new Scene(rootStack, screenW, screenH, Color.BLACK);
+        scene.getStylesheets().add(getClass().getResource("/com/jogos/styles.css").toExternalForm());
         stage.setScene(scene);
         stage.setTitle("ReciclaMack");
 
@@ -88,110 +252,253 @@ public class App extends Application {
         stage.setFullScreenExitKeyCombination(KeyCombination.NO_MATCH);
         stage.setFullScreen(true);
 
+        // o mundo é posicionado e escalado manualmente (ver updateScreenSizeFromStage)
         gamePane = new Pane();
-        gamePane.setPrefSize(screenW, screenH);
+        gamePane.setManaged(false);
+        gamePane.resize(screenW, screenH);
+        gamePane.setClip(new Rectangle(screenW, screenH));
+        gamePane.getTransforms().add(worldScale);
 
         // === Adiciona background animado ===
         animatedBackground = new AnimatedBackground("com/jogos/BackGround", screenW, screenH);
-        gamePane.getChildren().add(animatedBackground.getView());
+        gamePane.getChildren().addAll(animatedBackground.getView(), worldLayer);
 
         createGround();
-        buildHud();
+        particles = new ParticleSystem(4096, screenW, screenH);
         createCollector();
+        buildHud();
+        StartupTracer.mark("assets");
         ensureCollectorAndHudOnPane();
 
+        // menu de opções e créditos só são montados quando abertos pela primeira vez
         createMainMenu();
-        createOptionsMenu();
 
         rootStack.getChildren().addAll(gamePane, mainMenuPane);
+        AssetHotReload.startIfRequested(new AssetHotReload.Listener() {
+            @Override
+            public void onSpriteReloaded(String resourceName) {
+                App.this.onSpriteReloaded(resourceName);
+            }
+
+            @Override
+            public void onFrameReloaded(String folder, String fileName, Image image) {
+                if (!AnimatedSprite.replaceFrame(folder, fileName, image))
+                    animatedBackground.reload(folder, fileName);
+            }
+        });
+        input.setRecorder(replayRecorder);
+        loadSavedSession();
 
         // === Controles de teclado ===
+        // movimento vai para a fila com timestamp; ações discretas são tratadas aqui
         scene.setOnKeyPressed(e -> {
-            KeyCode c = e.getCode();
-            if (inMenu) {
-                if (c == KeyCode.ENTER) startGame();
-                if (c == KeyCode.ESCAPE && showingOptions) hideOptions();
-            } else {
-                if (c == KeyCode.LEFT || c == KeyCode.A) leftPressed = true;
-                if (c == KeyCode.RIGHT || c == KeyCode.D) rightPressed = true;
-                if (c == KeyCode.H) toggleHitboxes();
-                if (c == KeyCode.ESCAPE) showOptionsFromGame();
+            InputAction action = input.onKey(e.getCode(), true);
+            if (action == null) return;
+            switch (state) {
+                case MENU -> {
+                    if (action == InputAction.CONFIRM) startGame(false);
+                    if (action == InputAction.BACK && isOptionsVisible()) hideOptions();
+                }
+                case PLAYING -> {
+                    if (action == InputAction.TOGGLE_HITBOXES) toggleHitboxes();
+                    if (action == InputAction.BACK) pauseGame();
+                }
+                case PAUSED -> {
+                    if (action == InputAction.BACK) resumeGame();
+                }
+                default -> { }
             }
         });
 
-        scene.setOnKeyReleased(e -> {
-            KeyCode c = e.getCode();
-            if (c == KeyCode.LEFT || c == KeyCode.A) leftPressed = false;
-            if (c == KeyCode.RIGHT || c == KeyCode.D) rightPressed = false;
-        });
+        scene.setOnKeyReleased(e -> input.onKey(e.getCode(), false));
+
+        // qualquer toque reinicia a contagem do modo demonstração (ou o encerra)
+        scene.addEventFilter(KeyEvent.KEY_PRESSED, this::onUserActivity);
+        scene.addEventFilter(MouseEvent.MOUSE_PRESSED, this::onUserActivity);
+        scene.addEventFilter(MouseEvent.MOUSE_MOVED, e -> idleSeconds = 0);
+
+        // === Redimensionamento: escala imediata, caches reconstruídos após debounce ===
+        resizeDebounce.setOnFinished(e -> rebuildSizeDependentCaches());
+        scene.widthProperty().addListener((obs, o, n) -> updateScreenSizeFromStage());
+        scene.heightProperty().addListener((obs, o, n) -> updateScreenSizeFromStage());
 
         // === Game Loop ===
-        AnimationTimer loop = new AnimationTimer() {
+        loop = new AnimationTimer() {
             private long last = 0;
+            private long lastPulse = 0; // último pulso recebido, mesmo os ignorados pelo limite de FPS
+            private long worstPulse = 0; // maior intervalo entre pulsos desde o último frame processado
+
+            @Override
+            public void start() {
+                last = 0; // não conta o tempo em que ficou parado
+                lastPulse = 0;
+                worstPulse = 0;
+                if (replayRecorder != null) replayRecorder.restart();
+                if (exporter != null) return; // a exportação chama handle() com o relógio dela
+                super.start();
+            }
 
             @Override
             public void handle(long now) {
+                // pulso atrasado = render ou trabalho do pulso anterior passou do tempo
+                if (lastPulse != 0) worstPulse = Math.max(worstPulse, now - lastPulse);
+                lastPulse = now;
                 if (last == 0) {
                     last = now;
+                    if (replayRecorder != null) replayRecorder.frame(now, -1);
+                    if (state == GameState.MENU) {
+                        // primeiro frame já desenhado: no menu o loop pode parar
+                        StartupTracer.mark("first-frame");
+                        StartupTracer.report();
+                        setState(GameState.MENU);
+                    }
                     return;
                 }
-                double deltaSeconds = (now - last) / 1_000_000_000.0;
+                // limite de FPS: ignora pulsos que chegam antes do intervalo alvo (2ms de tolerância);
+                // na reprodução os pulsos já são só os que passaram pelo limite na gravação
+                if (targetFps > 0 && replay == null && now - last < 1_000_000_000L / targetFps - 2_000_000L) return;
+
+                // evento JFR só é criado se alguma gravação o habilitou
+                FrameEvent frameEvent = GameRecording.FRAME.isEnabled() ? new FrameEvent() : null;
+                if (frameEvent != null) frameEvent.begin();
+                if (allocations != null) allocations.beginFrame();
+                boolean playingFrame = state == GameState.PLAYING;
+                quietFrame = true;
+                frameNow = now;
+                frameSnapshotStep = -1;
+                long t0 = System.nanoTime();
+
+                long intervalNanos = now - last;
+                double deltaSeconds = intervalNanos / 1_000_000_000.0;
+                input.processFrame(last, now, moveStep);
+                if (state == GameState.PLAYING && autopilotDriving()) {
+                    Collector c = players[0].collector;
+                    double dir = autopilot.plan(items, c, worldW, screenW, terminalFallSpeed(), simTimeScale(), deltaSeconds);
+                    c.applyInput(dir, screenW, worldW, 1.0);
+                }
+                if (state == GameState.PLAYING) updateCamera();
+                // um relógio só para as animações das lixeiras (frames compartilhados)
+                for (int i = 0; i < playerCount; i++) players[i].collector.animate(now);
                 last = now;
+                long t1 = System.nanoTime();
 
-                if (!inMenu) {
-                    double moveDir = 0;
-                    if (leftPressed) moveDir -= 1;
-                    if (rightPressed) moveDir += 1;
-                    collector.applyInput(moveDir, screenW);
-
+                if (state == GameState.PLAYING) {
                     spawnTimer += deltaSeconds;
                     if (spawnTimer >= spawnInterval) {
                         spawnTimer = 0;
                         spawnInterval = Math.max(0.20, spawnInterval * 0.985);
                         itemFallSpeedFactor *= 1.008;
+                        level++;
                         spawnItems();
                     }
 
-                    updateItems(deltaSeconds);
+                    updateItems();
+                    // a roda anda pelo passo do snapshot lido, contado a partir do primeiro frame da partida
+                    if (effectSteps >= 0 && frameSnapshotStep > effectSteps) {
+                        int ticks = (int) ((frameSnapshotStep - effectSteps) / STEPS_PER_TICK);
+                        effectSteps += (long) ticks * STEPS_PER_TICK; // a sobra fica para o próximo frame
+                        effects.advanceTicks(ticks);
+                    }
+
+                    // quiosques reiniciam sem aviso: salva a partida de tempos em tempos
+                    autosaveTimer += deltaSeconds;
+                    if (autosaveTimer >= AUTOSAVE_SECONDS && state == GameState.PLAYING && !demoRun()
+                            && playerCount == 1) saveSession();
+
+                    if (attractMode && state == GameState.PLAYING) {
+                        attractTimer += deltaSeconds;
+                        if (attractTimer >= ATTRACT_MAX_SECONDS) stopAttractMode();
+                    }
+                } else if (state == GameState.GAME_OVER) {
+                    // deixa a explosão final terminar antes de voltar ao menu
+                    gameOverTimer += deltaSeconds;
+                    if (gameOverTimer >= 1.5) endGame();
                 }
+                long t2 = System.nanoTime();
+
+                particles.update(deltaSeconds);
+                particles.render();
+                // pulsos atrasados (render incluído) derrubam a qualidade; folga no trabalho a devolve
+                if (playingFrame && state == GameState.PLAYING) quality.onFrame(System.nanoTime() - t0, worstPulse, intervalNanos);
+                worstPulse = 0;
+
+                if (frameEvent != null) {
+                    frameEvent.state = state.name();
+                    frameEvent.inputNanos = t1 - t0;
+                    frameEvent.simulationNanos = t2 - t1;
+                    frameEvent.particlesNanos = System.nanoTime() - t2;
+                    frameEvent.itemCount = items.size();
+                    frameEvent.particleCount = particles.getCount();
+                    frameEvent.commit();
+                }
+                if (allocations != null) allocations.endFrame(playingFrame, !quietFrame, simulation.getPublishedSteps());
+                if (replayRecorder != null) replayRecorder.frame(now, frameSnapshotStep);
             }
         };
-        loop.start();
+        if (allocations != null) allocations.watchSimulation(simulation.getThread());
+        StartupTracer.mark("scene");
 
+        if (exportDir != null) {
+            startExport(scene);
+            return;
+        }
         stage.show();
+        loop.start();
     }
 
     private void createGround() {
-        Image img = new Image(getClass().getResourceAsStream("/com/jogos/Ground.png"));
-        groundImage = new ImageView(img);
-        groundImage.setFitWidth(screenW);
-        groundImage.setPreserveRatio(true);
-        groundImage.setSmooth(true);
+        // um pedaço por tela; só os próximos da câmera ficam na cena
+        groundChunks = new ChunkedLayer("/com/jogos/Ground.png", screenW, worldScreens);
 
         visibleGroundHeight = screenH * 0.14;
 
-        double imageHeight = groundImage.getBoundsInParent().getHeight();
-        groundImage.setX(0);
-        groundImage.setY(screenH - imageHeight);
+        double imageHeight = groundChunks.getChunkHeight();
+        groundChunks.getNode().setLayoutY(screenH - imageHeight);
+        groundChunks.update(cameraX, screenW);
 
-        ground = new Rectangle(0, screenH - visibleGroundHeight, screenW, visibleGroundHeight);
+        ground = new Rectangle(0, screenH - visibleGroundHeight, worldW, visibleGroundHeight);
         ground.setVisible(false);
 
-        gamePane.getChildren().addAll(groundImage, ground);
+        worldLayer.getChildren().addAll(groundChunks.getNode(), ground);
+    }
+
+    /**
+     * Câmera do mundo largo: centraliza o coletor (no co-op, o ponto médio das lixeiras em
+     * jogo), limitada às bordas do mundo. Com uma tela só fica sempre em 0.
+     */
+    private void updateCamera() {
+        double center = 0;
+        int n = 0;
+        for (int i = 0; i < playerCount; i++) {
+            if (players[i].isOut() && playerCount > 1) continue;
+            center += players[i].collector.getCenterX();
+            n++;
+        }
+        if (n == 0) return;
+        double cam = Math.max(0, Math.min(worldW - screenW, center / n - screenW / 2.0));
+        if (cam == cameraX) return;
+        cameraX = cam;
+        worldLayer.setTranslateX(-cam);
+        groundChunks.update(cam, screenW);
+        animatedBackground.setCameraX(cam);
+        particles.setViewOrigin(cam);
     }
 
     private void buildHud() {
-        scoreLabel = new Label("Score: 0");
-        livesLabel = new Label("Lives: " + lives);
         highScoreLabel = new Label("High: " + highScore);
-        scoreLabel.setFont(Font.font(20));
-        livesLabel.setFont(Font.font(20));
+        effectsLabel = new Label("");
         highScoreLabel.setFont(Font.font(20));
+        effectsLabel.setFont(Font.font(20));
 
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
 
-        hud = new HBox(12, scoreLabel, livesLabel, spacer, highScoreLabel);
+        // jogador 1 à esquerda, jogador 2 (só no co-op) à direita
+        Player p1 = players[0];
+        Player p2 = players[1];
+        p2.setHudVisible(false);
+        hud = new HBox(12, p1.getScoreLabel(), p1.getLivesLabel(), p1.getComboLabel(), effectsLabel, spacer,
+                p2.getScoreLabel(), p2.getLivesLabel(), p2.getComboLabel(), highScoreLabel);
         hud.setPadding(new Insets(10));
         hud.setMinWidth(screenW);
     }
@@ -200,35 +507,63 @@ public class App extends Application {
         double collectorHeight = screenH * 0.20;
         double groundTopY = ground.getY();
         double collectorY = groundTopY - collectorHeight + 60;
-        double collectorX = (screenW - (screenW * 0.14)) / 2.0;
+        double collectorX = (worldW - (screenW * 0.14)) / 2.0;
+
+        for (int i = 0; i < players.length; i++) {
+            // a imagem da lixeira, a máscara e os frames do personagem vêm dos caches compartilhados
+            Collector c = new Collector(collectorX, collectorY, collectorHeight);
+            if (i > 0) c.setPalette(P2_PALETTE);
+            players[i] = new Player(i, c);
+        }
+        warmSpriteVariants();
+    }
+
+    /** Gera agora todas as variantes usadas na partida, para o primeiro spawn não travar. */
+    private void warmSpriteVariants() {
+        for (ItemType t : VARIANT_TYPES) {
+            for (Palette p : ITEM_PALETTES) ImageLoader.loadVariant(GameItem.resourceFor(t), p);
+        }
+        ImageLoader.loadVariant(Collector.BIN_RESOURCE, Collector.DAMAGE_FLASH);
+    }
 
-        collector = new Collector(collectorX, collectorY, collectorHeight);
+    private static boolean hasVariants(ItemType t) {
+        for (ItemType v : VARIANT_TYPES) if (v == t) return true;
+        return false;
     }
 
     private void ensureCollectorAndHudOnPane() {
-        gamePane.getChildren().removeAll(collector.getNode(), hud);
-        gamePane.getChildren().addAll(collector.getNode(), hud);
+        for (int i = 0; i < players.length; i++) {
+            Node node = players[i].collector.getNode();
+            worldLayer.getChildren().remove(node);
+            if (i < playerCount) worldLayer.getChildren().add(node);
+        }
+        gamePane.getChildren().removeAll(particles.getCanvas(), hud);
+        gamePane.getChildren().addAll(particles.getCanvas(), hud);
     }
 
     // === Menus ===
     private void createMainMenu() {
         mainMenuPane = new VBox(12);
         mainMenuPane.setAlignment(Pos.CENTER);
-        mainMenuPane.setStyle("-fx-background-color: rgba(0,0,0,0.45);");
+        mainMenuPane.getStyleClass().add("menu-overlay");
 
         Label title = new Label("RECICLA MACK");
         title.setFont(Font.font(48));
         title.setTextFill(Color.WHITE);
 
-        Button playBtn = makeMenuButton("Jogar", e -> startGame());
+        continueBtn = makeMenuButton("Continuar", e -> continueGame());
+        continueBtn.setVisible(false); // só aparece se houver partida salva
+        continueBtn.setManaged(false);
+        Button playBtn = makeMenuButton("Jogar", e -> startGame(false));
+        Button coopBtn = makeMenuButton("Jogar a dois", e -> startGame(true));
         Button optionsBtn = makeMenuButton("Opções", e -> showOptions());
         Button creditsBtn = makeMenuButton("Créditos", e -> showCredits());
         Button exitBtn = makeMenuButton("Sair", e -> {
             HighScoreManager.save(HIGH_SCORE_FILE, highScore);
-            System.exit(0);
+            Platform.exit(); // passa por stop(), que espera a gravação da sessão
         });
 
-        mainMenuPane.getChildren().addAll(title, playBtn, optionsBtn, creditsBtn, exitBtn);
+        mainMenuPane.getChildren().addAll(title, continueBtn, playBtn, coopBtn, optionsBtn, creditsBtn, exitBtn);
     }
 
     private void showCredits() {
@@ -243,7 +578,7 @@ public class App extends Application {
     private void createOptionsMenu() {
         optionsPane = new VBox(10);
         optionsPane.setAlignment(Pos.CENTER);
-        optionsPane.setStyle("-fx-background-color: rgba(0,0,0,0.6);");
+        optionsPane.getStyleClass().add("options-overlay");
         optionsPane.setVisible(false);
 
         Label title = new Label("Opções");
@@ -253,13 +588,12 @@ public class App extends Application {
         Button fullscreenBtn = makeMenuButton("Alternar Tela Cheia / Janela", e -> {
             boolean fs = !primaryStage.isFullScreen();
             primaryStage.setFullScreen(fs);
-            updateScreenSizeFromStage();
         });
 
         Label resLabel = new Label("Resolução (modo janela)");
         resLabel.setPrefWidth(280);
         resLabel.setAlignment(Pos.CENTER);
-        resLabel.setStyle("-fx-background-color: white;-fx-text-fill: black;-fx-font-size: 16px;-fx-font-weight: bold;-fx-background-radius: 10;");
+        resLabel.getStyleClass().add("menu-label");
 
         ComboBox<String> resolutionBox = new ComboBox<>();
         resolutionBox.getItems().addAll("1024x576", "1280x720", "1600x900", "1920x1080");
@@ -274,7 +608,6 @@ public class App extends Application {
                     primaryStage.setFullScreen(false);
                     primaryStage.setWidth(w);
                     primaryStage.setHeight(h);
-                    updateScreenSizeFromStage();
                 } catch (Exception ignored) {}
             }
         });
@@ -283,13 +616,13 @@ public class App extends Application {
         Label musicLabel = new Label("Música: 100%");
         musicLabel.setPrefWidth(280);
         musicLabel.setAlignment(Pos.CENTER);
-        musicLabel.setStyle("-fx-background-color: white;-fx-text-fill: black;-fx-font-size: 16px;-fx-font-weight: bold;-fx-background-radius: 10;");
+        musicLabel.getStyleClass().add("menu-label");
 
         Slider musicSlider = new Slider(0, 100, 100);
         musicSlider.setPrefWidth(200);
         musicSlider.setMaxWidth(200);
         musicSlider.setMinWidth(200);
-        musicSlider.setStyle("-fx-control-inner-background: lightgray;");
+        musicSlider.getStyleClass().add("menu-slider");
         musicSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
             int percent = newVal.intValue();
             musicLabel.setText("Música: " + percent + "%");
@@ -299,13 +632,13 @@ public class App extends Application {
         Label effectsLabel = new Label("Efeitos: 100%");
         effectsLabel.setPrefWidth(280);
         effectsLabel.setAlignment(Pos.CENTER);
-        effectsLabel.setStyle("-fx-background-color: white;-fx-text-fill: black;-fx-font-size: 16px;-fx-font-weight: bold;-fx-background-radius: 10;");
+        effectsLabel.getStyleClass().add("menu-label");
 
         Slider effectsSlider = new Slider(0, 100, 100);
         effectsSlider.setPrefWidth(200);
         effectsSlider.setMaxWidth(200);
         effectsSlider.setMinWidth(200);
-        effectsSlider.setStyle("-fx-control-inner-background: lightgray;");
+        effectsSlider.getStyleClass().add("menu-slider");
         effectsSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
             int percent = newVal.intValue();
             effectsLabel.setText("Efeitos: " + percent + "%");
@@ -316,9 +649,27 @@ public class App extends Application {
             hideOptions();
             endGame();
         });
-        Button backBtn = makeMenuButton("Voltar ao Jogo", e -> hideOptions());
+        Button backBtn = makeMenuButton("Voltar ao Jogo", e -> {
+            if (state == GameState.PAUSED) resumeGame();
+            else hideOptions();
+        });
+
+        Label fpsLabel = new Label("Limite de FPS");
+        fpsLabel.setPrefWidth(280);
+        fpsLabel.setAlignment(Pos.CENTER);
+        fpsLabel.getStyleClass().add("menu-label");
+
+        ComboBox<String> fpsBox = new ComboBox<>();
+        fpsBox.getItems().addAll("30", "60", "Sem limite");
+        fpsBox.setValue(targetFps == 0 ? "Sem limite" : Integer.toString(targetFps));
+        fpsBox.setOnAction(e -> {
+            String val = fpsBox.getValue();
+            if (val == null) return;
+            targetFps = "Sem limite".equals(val) ? 0 : Integer.parseInt(val);
+            quality.setBudgetNanos(frameBudgetNanos(targetFps));
+        });
 
-        VBox inner = new VBox(10, title, fullscreenBtn, resLabel, resolutionBox,
+        VBox inner = new VBox(10, title, fullscreenBtn, resLabel, resolutionBox, fpsLabel, fpsBox,
                 musicLabel, musicSlider, effectsLabel, effectsSlider, backToMenuBtn, backBtn);
         inner.setAlignment(Pos.CENTER);
         optionsPane.getChildren().add(inner);
@@ -328,163 +679,1084 @@ public class App extends Application {
         Button btn = new Button(text);
         btn.setPrefWidth(280);
         btn.setPrefHeight(40);
-        btn.setStyle("-fx-background-color: white;-fx-text-fill: black;-fx-font-size: 16px;-fx-font-weight: bold;-fx-background-radius: 10;");
+        btn.getStyleClass().add("menu-button");
         btn.setOnAction(action);
         return btn;
     }
 
-    private void startGame() {
-        inMenu = false;
-        rootStack.getChildren().removeAll(mainMenuPane, optionsPane);
-        showingOptions = false;
+    /**
+     * Troca de estado e liga/desliga o que consome CPU/GPU:
+     * PLAYING e GAME_OVER rodam o loop e as animações; INTRO para tudo (a intro cobre a tela);
+     * MENU e PAUSED param o loop e deixam só o fundo avançando a cada segundo.
+     */
+    private void setState(GameState next) {
+        state = next;
+        simulation.setRunning(next == GameState.PLAYING);
+        switch (next) {
+            case PLAYING, GAME_OVER -> {
+                stopIdleTicker();
+                if (quality.getTier().compareTo(QualityController.Tier.STATIC_BACKGROUND) < 0)
+                    animatedBackground.resume();
+                quality.resetMeasurements();
+                loop.start();
+            }
+            case INTRO -> {
+                stopIdleTicker();
+                loop.stop();
+                animatedBackground.pause();
+            }
+            case MENU, PAUSED -> {
+                loop.stop();
+                animatedBackground.pause();
+                startIdleTicker();
+            }
+        }
+    }
+
+    private void startIdleTicker() {
+        if (idleTask != null) return;
+        idleTask = idleTicker.scheduleAtFixedRate(
+                () -> Platform.runLater(this::onIdleTick), 1, 1, TimeUnit.SECONDS);
+    }
+
+    private void stopIdleTicker() {
+        if (idleTask == null) return;
+        idleTask.cancel(false);
+        idleTask = null;
+    }
+
+    private void onIdleTick() {
+        animatedBackground.step();
+        if (state == GameState.MENU && rootStack.getChildren().contains(mainMenuPane) && !isOptionsVisible()
+                && ++idleSeconds >= ATTRACT_IDLE_SECONDS) {
+            startAttractMode();
+        }
+    }
+
+    // === Modo demonstração ===
+
+    private boolean autopilotDriving() {
+        return attractMode || autopilotPlayer || (exporter != null && replay == null);
+    }
+
+    /** Partida que não é de ninguém (demonstração ou exportação): não salva nem conta placar. */
+    private boolean demoRun() {
+        return attractMode || exporter != null;
+    }
+
+    private void onUserActivity(javafx.event.Event e) {
+        idleSeconds = 0;
+        if (!attractMode) return;
+        e.consume(); // o toque só encerra a demonstração
+        stopAttractMode();
+    }
+
+    /** Partida jogada pelo piloto automático, sem placar, telemetria nem partida salva. */
+    private void startAttractMode() {
+        attractMode = true;
+        playerCount = 1;
+        idleSeconds = 0;
+        attractTimer = 0;
+        rootStack.getChildren().remove(mainMenuPane);
+        if (attractLabel == null) {
+            attractLabel = new Label("DEMONSTRAÇÃO — pressione qualquer tecla");
+            attractLabel.getStyleClass().add("menu-label");
+            attractLabel.setPadding(new Insets(6, 14, 6, 14));
+            StackPane.setAlignment(attractLabel, Pos.BOTTOM_CENTER);
+            StackPane.setMargin(attractLabel, new Insets(0, 0, 24, 0));
+        }
+        rootStack.getChildren().add(attractLabel);
+        resetGame();
+        setState(GameState.PLAYING);
+    }
+
+    private void stopAttractMode() {
+        attractMode = false;
+        idleSeconds = 0;
+        rootStack.getChildren().remove(attractLabel);
+        setState(GameState.MENU);
+        input.reset();
+        resetGame();
+        particles.clear();
+        particles.render(); // o loop vai parar: limpa o canvas agora
+        if (!rootStack.getChildren().contains(mainMenuPane))
+            rootStack.getChildren().add(mainMenuPane);
+    }
+
+    /** @param coop dois jogadores na mesma tela (A/D e setas) */
+    private void startGame(boolean coop) {
+        playerCount = coop ? 2 : 1;
+        rootStack.getChildren().remove(mainMenuPane);
+        if (optionsPane != null) rootStack.getChildren().remove(optionsPane);
+        setState(GameState.INTRO);
         SoundManager.playMusic();
-        IntroScreen intro = new IntroScreen(rootStack, this::resetGame);
+        IntroScreen intro = new IntroScreen(rootStack, () -> {
+            resetGame();
+            beginRecording(null);
+            setState(GameState.PLAYING);
+        });
         intro.show();
+        warmUpGameplay();
+    }
+
+    /**
+     * Aproveita a intro para preparar a partida fora da thread do FX: decodifica sprites e
+     * máscaras dos itens, monta os nós que vão para o pool e roda física e colisões de verdade
+     * em uma Simulation descartável (relógio manual) até o JIT compilar o caminho quente. Os
+     * itens entram no pool na thread do FX. Uma vez por execução: depois o pool se mantém.
+     */
+    private void warmUpGameplay() {
+        if (warmedUp) return;
+        warmedUp = true;
+        Collector c = players[0].collector;
+        Collector.Hitbox hb = c.getHitbox();
+        double binX = c.getHitboxX();
+        double binY = c.getHitboxY();
+        double size = itemSize();
+        double w = worldW;
+        double viewW = screenW;
+        double h = screenH;
+        double fall = terminalFallSpeed();
+
+        Thread t = new Thread(() -> {
+            List<GameItem> built = new ArrayList<>();
+            for (ItemType type : REGULAR_TYPES)
+                for (int i = 0; i < WARM_ITEMS_PER_TYPE * worldScreens; i++) built.add(new GameItem(type, 0, 0, size));
+            for (ItemType type : POWER_UP_TYPES)
+                for (int i = 0; i < 2; i++) built.add(new GameItem(type, 0, 0, size));
+            warmSimulation(built, hb, binX, binY, w, viewW, h, fall);
+            Platform.runLater(() -> {
+                for (GameItem gi : built) itemPool.get(gi.type).push(gi);
+            });
+        }, "gameplay-warmup");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY); // a intro continua tendo prioridade
+        t.start();
+    }
+
+    /** Itens caindo sem parar sobre a lixeira: passa por física, máscaras e fila de eventos. */
+    private static void warmSimulation(List<GameItem> items, Collector.Hitbox hb, double binX, double binY,
+                                       double worldW, double viewW, double worldH, double fallSpeed) {
+        Simulation sim = new Simulation(items.size());
+        sim.setWorldSize(worldW, viewW, worldH);
+        sim.setFallSpeed(fallSpeed);
+        sim.setHitbox(0, hb, binX, binY);
+        sim.setManualClock(true);
+        sim.setRunning(true);
+        for (int i = 0; i < items.size(); i++) dropOver(sim, items.get(i), hb, binX, i, fallSpeed);
+        sim.commitFrame();
+        for (int s = 0; s < WARM_SIM_STEPS; s++) {
+            sim.stepManually(1);
+            while (sim.hasEvent()) {
+                GameItem gi = sim.itemFor(sim.peekEventHandle());
+                sim.popEvent();
+                if (gi == null) continue;
+                sim.release(gi);
+                dropOver(sim, gi, hb, binX, s, fallSpeed);
+            }
+            sim.commitFrame();
+        }
+        sim.shutdown();
+        for (GameItem gi : items) gi.handle = -1; // handles da simulação descartável
+    }
+
+    private static void dropOver(Simulation sim, GameItem gi, Collector.Hitbox hb, double binX, int seed,
+                                 double fallSpeed) {
+        gi.x = binX + (seed * 37 % 100) / 100.0 * hb.w() - gi.getRenderedWidth() / 2;
+        gi.y = -gi.getRenderedHeight() - (seed * 53 % 400);
+        gi.angle = 0;
+        sim.spawn(gi, 0, fallSpeed * 0.4, (seed & 1) == 0 ? 1.5 : -1.5);
+    }
+
+    private void pauseGame() {
+        showOptions();
+        setState(GameState.PAUSED);
+        if (playerCount == 1) saveSession();
+    }
+
+    /** Volta à partida salva, sem intro. Se o snapshot for inválido começa uma nova. */
+    private void continueGame() {
+        rootStack.getChildren().remove(mainMenuPane);
+        if (optionsPane != null) rootStack.getChildren().remove(optionsPane);
+        playerCount = 1; // o snapshot é sempre de uma partida de um jogador
+        if (!restoreSession(savedSession)) {
+            startGame(false);
+            return;
+        }
+        beginRecording(savedSession);
+        setState(GameState.PLAYING);
+    }
+
+    // === Gravação e reprodução de partidas ===
+
+    /**
+     * Começa a gravar a partida que acabou de ser preparada (nova ou restaurada), se a
+     * gravação estiver ligada e a partida for de um jogador humano.
+     * @param sessionBody corpo do snapshot de onde a partida partiu, ou null (partida nova)
+     */
+    private void beginRecording(ByteBuffer sessionBody) {
+        if (replayRecorder == null || playerCount != 1 || demoRun() || autopilotDriving()) return;
+        replayRecorder.begin(gameSeed, screenW, screenH, worldW, players[0].collector.x, sessionBody, gameFrameBase);
+    }
+
+    /**
+     * Semeia todos os geradores da partida: itens (FX), rajadas de vento (simulação) e
+     * partículas, cada um com seu fluxo. A mesma semente e as mesmas teclas repetem a partida.
+     */
+    private void seedGame(long seed) {
+        gameSeed = seed;
+        rng.setSeed(seed);
+        simulation.setSeed(seed + 1);
+        particles.setSeed(seed + 2);
+    }
+
+    /** Gravação a refazer na exportação, ou null para jogar a sessão salva com o piloto. */
+    private static ReplayReader loadExportReplay() {
+        String file = System.getProperty("reciclamack.export.replay", System.getProperty("reciclamack.replay"));
+        if (file == null) return null;
+        ReplayReader r = ReplayReader.load(Path.of(file));
+        if (r == null) System.out.println("Exportação: sem gravação válida em " + file + ", usando a sessão salva");
+        return r;
+    }
+
+    /**
+     * Refaz os registros da gravação até o instante {@code until} (relógio da gravação):
+     * teclas entram na fila com o carimbo original, a simulação anda até o passo que cada
+     * frame leu e o loop recebe o instante gravado.
+     */
+    private void replayUntil(long until) {
+        while (replay.hasNext() && exporter != null) {
+            if (replay.peekKind() == ReplayReader.FRAME && replay.peekFrameTime() > until) return;
+            switch (replay.next()) {
+                case ReplayReader.INPUT -> input.inject(replay.getTime(), replay.getAction(), replay.isPressed());
+                case ReplayReader.APPLIED -> replayLatches.add(new long[] {
+                        replayFrameBase + replay.getFrame(), replayStepBase + replay.getStep() });
+                case ReplayReader.RESTART -> loop.start();
+                case ReplayReader.FRAME -> {
+                    long target = replay.getStep() < 0 ? -1 : replayStepBase + replay.getStep();
+                    // a simulação só anda em PLAYING; fora dele o frame gravado não leu snapshot
+                    if (target >= 0 && state == GameState.PLAYING) replayStepTo(target);
+                    loop.handle(replay.getTime());
+                    if (target >= 0 && frameSnapshotStep >= 0 && frameSnapshotStep != target && !replayDiverged) {
+                        replayDiverged = true;
+                        System.err.printf("Exportação: a reprodução divergiu da gravação (passo %d, esperado %d)%n",
+                                frameSnapshotStep - replayStepBase, target - replayStepBase);
+                    }
+                }
+                default -> { }
+            }
+        }
+    }
+
+    /**
+     * Anda a simulação até {@code target}, deixando cada frame do FX entrar depois do
+     * mesmo passo em que entrou na gravação.
+     */
+    private void replayStepTo(long target) {
+        long at = simulation.getPublishedSteps();
+        while (!replayLatches.isEmpty() && replayLatches.peek()[1] < target) {
+            long[] latch = replayLatches.poll();
+            if (latch[1] > at) {
+                simulation.stepManually((int) (latch[1] - at), replayFrameLimit);
+                at = latch[1];
+            }
+            replayFrameLimit = latch[0]; // entra antes do próximo passo
+        }
+        if (target > at) simulation.stepManually((int) (target - at), replayFrameLimit);
+    }
+
+    // === Exportação de vídeo ===
+
+    /**
+     * Prepara a exportação: relógio manual na simulação e no fundo, som desligado, FPS sem
+     * limite e a partida (gravação, sessão salva ou nova) já em PLAYING. O restante acontece em
+     * {@link #exportPulse}.
+     */
+    private void startExport(Scene scene) {
+        exportFps = Math.max(1, Integer.getInteger("reciclamack.export.fps", 60));
+        double seconds = Double.parseDouble(System.getProperty("reciclamack.export.seconds", "60"));
+        exportFrames = Math.max(1, (int) Math.round(seconds * exportFps));
+        int threads = Math.max(1, Integer.getInteger("reciclamack.export.threads",
+                Runtime.getRuntime().availableProcessors() - 1));
+        int w = (int) Math.round(scene.getWidth());
+        int h = (int) Math.round(scene.getHeight());
+        try {
+            exporter = new FrameExporter(Path.of(exportDir), w, h, threads);
+        } catch (IOException e) {
+            System.err.println("Exportação: não foi possível criar " + exportDir + " -> " + e.getMessage());
+            Platform.exit();
+            return;
+        }
+        exportImage = new WritableImage(w, h);
+        targetFps = 0;
+        simulation.setManualClock(true);
+        animatedBackground.setManualClock(true);
+        SoundManager.stopMusic();
+        SoundManager.setMusicVolume(0);
+        SoundManager.setEffectsVolume(0);
+
+        rootStack.getChildren().remove(mainMenuPane);
+        playerCount = 1;
+        if (replay != null) {
+            // mesmo ponto de partida da gravação; resetGame usa a semente dela
+            ByteBuffer body = replay.getSession();
+            if (body != null && !restoreSession(body))
+                System.err.println("Exportação: a sessão da gravação não pôde ser restaurada");
+            if (body == null) resetGame();
+            Collector c = players[0].collector;
+            c.x = replay.getCollectorX();
+            c.applyInput(0, screenW, worldW, 0);
+            updateCamera();
+            replayFrameBase = simulation.getCommittedFrames();
+            replayStepBase = simulation.getPublishedSteps();
+            replayFrameLimit = replayFrameBase;
+            simulation.stepManually(0, replayFrameLimit); // nenhum frame da partida entra antes da hora
+            System.out.println("Exportação: refazendo a partida gravada (semente " + replay.getSeed() + ")");
+        } else {
+            // sem gravação o piloto joga o snapshot de sessão (o do jogo, ou outro arquivo)
+            String file = System.getProperty("reciclamack.export.session");
+            ByteBuffer body = file == null ? session.load() : new SessionStore(Path.of(file)).load();
+            if (!restoreSession(body)) {
+                long seed = Long.getLong("reciclamack.export.seed", 1L);
+                resetGame();
+                seedGame(seed);
+                System.out.println("Exportação: sem sessão salva válida, partida nova com semente " + seed);
+            }
+        }
+        setState(GameState.PLAYING);
+        System.out.printf("Exportação: %d frames a %d fps, %dx%d, %d workers -> %s%n",
+                exportFrames, exportFps, w, h, threads, Path.of(exportDir).toAbsolutePath());
+
+        if (replay != null) {
+            exportStart = replay.getStartTime(); // relógio da gravação
+        } else {
+            exportStart = System.nanoTime();
+            loop.handle(exportStart); // primeiro frame só inicializa o relógio do loop
+        }
+        exportTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                exportPulse();
+            }
+        };
+        exportTimer.start();
+    }
+
+    /**
+     * Avança e grava quantos frames couberem nos buffers livres do exportador (até
+     * {@value #EXPORT_FRAMES_PER_PULSE} por pulso). Cada frame anda exatamente 1/fps: na
+     * reprodução, os frames gravados até esse instante ({@link #replayUntil}); senão, os passos
+     * da simulação são pedidos à mão e o loop recebe o instante sintético. Sem buffer livre o
+     * pulso termina e o próximo continua de onde parou.
+     */
+    private void exportPulse() {
+        Scene scene = primaryStage.getScene();
+        for (int n = 0; n < EXPORT_FRAMES_PER_PULSE && exporter.canOffer(); n++) {
+            if (exportFrame >= exportFrames) {
+                finishExport();
+                return;
+            }
+            int next = exportFrame + 1;
+            animatedBackground.advanceBy(1.0 / exportFps);
+            if (replay != null) {
+                // cada PNG mostra a partida como estava no último frame gravado até o instante dele
+                replayUntil(exportStart + exportFrame * 1_000_000_000L / exportFps);
+            } else {
+                long steps = (long) next * Simulation.STEPS_PER_SECOND / exportFps
+                        - (long) exportFrame * Simulation.STEPS_PER_SECOND / exportFps;
+                // a simulação só roda em PLAYING (no GAME_OVER ela já parou)
+                if (state == GameState.PLAYING && steps > 0) simulation.stepManually((int) steps);
+                loop.handle(exportStart + next * 1_000_000_000L / exportFps);
+            }
+            if (exporter == null) return; // a partida acabou neste frame (endGame)
+
+            scene.snapshot(exportImage);
+            exporter.offer(exportImage, exportFrame);
+            exportFrame = next;
+            if (replay != null && !replay.hasNext()) {
+                finishExport(); // a gravação acabou antes do tempo pedido
+                return;
+            }
+        }
+    }
+
+    /** Para de renderizar, espera os PNGs pendentes fora da thread do FX e fecha o jogo. */
+    private void finishExport() {
+        if (exporter == null) return;
+        exportTimer.stop();
+        simulation.setRunning(false);
+        FrameExporter done = exporter;
+        exporter = null;
+        Thread t = new Thread(() -> {
+            done.finish();
+            Platform.runLater(Platform::exit);
+        }, "export-finish");
+        t.start();
+    }
+
+    // === Salvar / restaurar partida ===
+    // ordem do corpo (SessionStore.VERSION = 3): tamanho do mundo e da tela, placar, ritmo, RNG, coletor,
+    // combo, power-ups, escudos, vento, itens. Prazos vão em ticks da roda de timers.
+    // só partidas de um jogador são salvas
+
+    /** Copia o estado da partida para o SessionStore; a gravação em disco é assíncrona. */
+    private void saveSession() {
+        autosaveTimer = 0;
+        ByteBuffer b = session.beginSave();
+        b.putDouble(worldW).putDouble(screenW).putDouble(screenH);
+        Player p = players[0];
+        b.putInt(p.score).putInt(p.lives).putInt(level);
+        b.putDouble(spawnInterval).putDouble(spawnTimer).putDouble(itemFallSpeedFactor);
+        b.putLong(rng.getState());
+        b.putDouble(p.collector.x);
+        b.putInt(p.combo).putInt(Math.max(0, effects.remainingTicks(p.comboTimer)));
+
+        // power-ups com prazo (ímã, câmera lenta, lixeira larga); escudos vão à parte, em ordem de fila
+        int countAt = b.position();
+        b.putInt(0);
+        effects.forEachPending((ticks, payload) -> {
+            if (payload < COMBO_TIMEOUT && payload != ItemType.SHIELD.ordinal()) {
+                b.put((byte) payload).putInt(ticks);
+                b.putInt(countAt, b.getInt(countAt) + 1);
+            }
+        });
+        b.putInt(shieldCount);
+        for (int i = 0; i < shieldCount; i++)
+            b.putInt(effects.remainingTicks(shieldTimers[(shieldHead + i) % shieldTimers.length]));
+
+        Simulation.Snapshot snap = simulation.currentSnapshot();
+        b.putFloat(snap.wind).putFloat(snap.windTarget).putFloat(snap.gustTimer).putLong(snap.windRandomState);
+
+        b.putInt(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            GameItem gi = items.get(i);
+            b.put((byte) gi.type.ordinal());
+            b.putFloat((float) gi.x).putFloat((float) gi.y).putFloat((float) gi.angle);
+            b.putFloat((float) gi.vx).putFloat((float) gi.vy).putFloat((float) gi.omega);
+        }
+        session.commitSave();
+    }
+
+    /**
+     * Recria a partida a partir do corpo de um snapshot. Posições e velocidades são
+     * reescaladas se a tela mudou de tamanho.
+     * @return false se o snapshot não for utilizável
+     */
+    private boolean restoreSession(ByteBuffer saved) {
+        if (saved == null) return false;
+        ByteBuffer b = saved.duplicate();
+        try {
+            double sx = worldW / b.getDouble();
+            double sv = screenW / b.getDouble(); // vento é proporcional à largura da tela
+            double sy = screenH / b.getDouble();
+            int savedScore = b.getInt();
+            int savedLives = b.getInt();
+            if (savedLives <= 0 || savedScore < 0 || !(sx > 0) || !(sv > 0) || !(sy > 0)) return false;
+
+            resetGame();
+            Player p = players[0];
+            p.score = savedScore;
+            p.lives = savedLives;
+            level = b.getInt();
+            spawnInterval = b.getDouble();
+            spawnTimer = b.getDouble();
+            itemFallSpeedFactor = b.getDouble();
+            rng.setState(b.getLong());
+            p.collector.x = b.getDouble() * sx;
+            p.collector.applyInput(0, screenW, worldW, 0); // recorta ao mundo e reposiciona
+
+            p.combo = b.getInt();
+            int comboTicks = b.getInt();
+            if (comboTicks > 0) p.comboTimer = effects.scheduleTicks(comboTicks, COMBO_TIMEOUT);
+            ItemType[] types = ItemType.values();
+            int effectCount = b.getInt();
+            for (int i = 0; i < effectCount; i++) {
+                int ordinal = b.get();
+                int ticks = b.getInt();
+                if (ordinal < 0 || ordinal >= types.length || !types[ordinal].isPowerUp()) continue;
+                startPowerUp(types[ordinal], ticks);
+            }
+            int shields = b.getInt();
+            for (int i = 0; i < shields; i++) startPowerUp(ItemType.SHIELD, b.getInt());
+            simulation.setWind(b.getFloat() * (float) sv, b.getFloat() * (float) sv, b.getFloat(), b.getLong());
+
+            double size = itemSize();
+            int n = b.getInt();
+            for (int i = 0; i < n; i++) {
+                int ordinal = b.get();
+                double x = b.getFloat() * sx;
+                double y = b.getFloat() * sy;
+                double angle = b.getFloat();
+                double vx = b.getFloat() * sx;
+                double vy = b.getFloat() * sy;
+                double omega = b.getFloat();
+                if (ordinal < 0 || ordinal >= types.length) continue;
+
+                GameItem gi = acquireItem(types[ordinal], x, y, size);
+                gi.angle = angle;
+                if (!simulation.spawn(gi, vx, vy, omega)) {
+                    itemPool.get(gi.type).push(gi);
+                    continue;
+                }
+                gi.updateView();
+                gi.setSmooth(quality.getTier() == QualityController.Tier.HIGH);
+                gi.setHitboxVisible(showHitboxes);
+                items.add(gi);
+                worldLayer.getChildren().add(gi.getNode());
+            }
+        } catch (BufferUnderflowException e) {
+            System.err.println("Sessão salva incompleta, iniciando nova partida");
+            resetGame();
+            return false;
+        }
+        if (players[0].score > highScore) highScore = players[0].score;
+        ensureCollectorAndHudOnPane();
+        updateCamera();
+        updateHud();
+        return true;
+    }
+
+    /** Lê a partida salva em segundo plano e mostra "Continuar" se houver uma válida. */
+    private void loadSavedSession() {
+        session.loadAsync(body -> {
+            savedSession = body;
+            continueBtn.setVisible(true);
+            continueBtn.setManaged(true);
+        });
+    }
+
+    private void discardSession() {
+        session.delete();
+        savedSession = null;
+        continueBtn.setVisible(false);
+        continueBtn.setManaged(false);
+    }
+
+    private void resumeGame() {
+        hideOptions();
+        setState(GameState.PLAYING);
     }
 
     private void resetGame() {
-        score = 0;
-        lives = 3;
+        for (int i = 0; i < players.length; i++) {
+            Player p = players[i];
+            p.reset();
+            p.collector.setWideFactor(1.0);
+            p.collector.setPalette(i > 0 ? P2_PALETTE : null); // também encerra um flash de dano
+            p.collector.getNode().setVisible(true);
+            p.setHudPrefix(playerCount > 1 ? "P" + (i + 1) + " " : "");
+            if (i > 0) p.setHudVisible(i < playerCount);
+        }
+        if (playerCount > 1) {
+            // co-op: cada um começa em um terço da tela atual
+            for (int i = 0; i < playerCount; i++) {
+                Collector c = players[i].collector;
+                c.x = cameraX + screenW * (i + 1) / 3.0 - c.getHitbox().w() / 2.0;
+                c.applyInput(0, screenW, worldW, 0);
+            }
+        }
         spawnInterval = 1.0;
         spawnTimer = 0;
+        autosaveTimer = 0;
         itemFallSpeedFactor = 0.0025;
-        items.forEach(it -> gamePane.getChildren().remove(it.getNode()));
+        level = 0;
+        effects.clear();
+        Arrays.fill(activeEffects, 0);
+        shieldHead = 0;
+        shieldCount = 0;
+        simulation.clear();
+        gameFrameBase = simulation.getCommittedFrames();
+        effectSteps = -1; // a origem é o passo em que o primeiro frame da partida entrar
+        seedGame(replay != null ? replay.getSeed() : System.nanoTime());
+        variantCounter = 0;
+        for (int i = 0; i < items.size(); i++) recycleItem(items.get(i));
         items.clear();
         updateHud();
         ensureCollectorAndHudOnPane();
+        updateCamera();
     }
 
     private void showOptions() {
+        if (optionsPane == null) createOptionsMenu();
         if (!rootStack.getChildren().contains(optionsPane))
             rootStack.getChildren().add(optionsPane);
         optionsPane.setVisible(true);
-        showingOptions = true;
     }
 
     private void hideOptions() {
+        if (optionsPane == null) return;
         optionsPane.setVisible(false);
         rootStack.getChildren().remove(optionsPane);
-        showingOptions = false;
     }
 
-    private void showOptionsFromGame() {
-        if (!showingOptions) showOptions();
-        else hideOptions();
+    private boolean isOptionsVisible() {
+        return optionsPane != null && optionsPane.isVisible();
     }
 
     private void spawnItems() {
-        int spawns = 1 + rng.nextInt(2);
+        // a densidade por tela é a mesma em qualquer largura de mundo
+        int spawns = (1 + rng.nextInt(2)) * worldScreens;
         for (int i = 0; i < spawns; i++) spawnItemOnce();
     }
 
     private void spawnItemOnce() {
-        double size = Math.max(48, screenW * 0.07 * 0.70);
-        double x = 12 + rng.nextDouble() * (screenW - size - 24);
+        double size = itemSize();
+        double x = 12 + rng.nextDouble() * (worldW - size - 24);
         double y = -size - rng.nextDouble(10, 80);
-        ItemType t = ItemType.values()[rng.nextInt(ItemType.values().length)];
-        GameItem gi = new GameItem(t, x, y, size);
+        ItemType[] pool = rng.nextDouble() < POWER_UP_CHANCE ? POWER_UP_TYPES : REGULAR_TYPES;
+        ItemType t = pool[rng.nextInt(pool.length)];
+        GameItem gi = acquireItem(t, x, y, size);
+        if (hasVariants(t)) {
+            gi.setPalette(ITEM_PALETTES[variantCounter]);
+            variantCounter = (variantCounter + 1) % ITEM_PALETTES.length;
+        } else {
+            gi.setPalette(null);
+        }
+        gi.setSmooth(quality.getTier() == QualityController.Tier.HIGH);
+        gi.setHitboxVisible(showHitboxes);
+        // power-ups caem sem girar para o ícone continuar legível
+        double spin = t.isPowerUp() ? 0 : (0.8 + rng.nextDouble() * 2.2) * (rng.nextBoolean() ? 1 : -1);
+        if (!simulation.spawn(gi, (rng.nextDouble() * 2 - 1) * screenW * 0.05, terminalFallSpeed() * 0.4, spin)) {
+            itemPool.get(t).push(gi);
+            return;
+        }
+        quietFrame = false;
         items.add(gi);
-        gamePane.getChildren().add(gi.getNode());
+        worldLayer.getChildren().add(gi.getNode());
+        if (telemetry != null && !demoRun()) telemetry.emit(Telemetry.SPAWN, t, x, y, level, totalScore());
+        if (GameRecording.SPAWN.isEnabled()) {
+            ItemSpawnEvent e = new ItemSpawnEvent();
+            e.itemType = t.name();
+            e.x = (float) x;
+            e.y = (float) y;
+            e.level = level;
+            e.commit();
+        }
         ensureCollectorAndHudOnPane();
     }
 
-    private void updateItems(double deltaSeconds) {
-        double fall = screenH * itemFallSpeedFactor * deltaSeconds * 60.0;
-        Iterator<GameItem> it = items.iterator();
-        while (it.hasNext()) {
-            GameItem gi = it.next();
-            gi.y += fall;
-            gi.updateView();
+    private double itemSize() {
+        return Math.max(48, screenW * 0.07 * 0.70);
+    }
+
+    /** Item do pool (ou novo, se o pool do tipo estiver vazio ou com outro tamanho). */
+    private GameItem acquireItem(ItemType t, double x, double y, double size) {
+        ArrayDeque<GameItem> pool = itemPool.get(t);
+        while (!pool.isEmpty()) {
+            GameItem gi = pool.pop();
+            if (gi.getLogicalSize() == Math.max(24, size)) {
+                gi.reset(x, y);
+                return gi;
+            }
+        }
+        return new GameItem(t, x, y, size);
+    }
+
+    private void recycleItem(GameItem gi) {
+        worldLayer.getChildren().remove(gi.getNode());
+        itemPool.get(gi.type).push(gi);
+    }
+
+    private double simTimeScale() {
+        return isActive(ItemType.SLOW_MOTION) ? 0.5 : 1.0;
+    }
+
+    /** Velocidade de queda (px/s) para a qual os itens convergem no nível atual. */
+    private double terminalFallSpeed() {
+        return screenH * itemFallSpeedFactor * 60.0;
+    }
+
+    /**
+     * Lado do FX da simulação: copia as posições do snapshot mais recente para os nós
+     * visíveis, aplica as regras aos eventos de coleta/perda até o passo desse snapshot e
+     * confirma o frame (parâmetros e spawns) para a simulação.
+     */
+    private void updateItems() {
+        Simulation.Snapshot snap = simulation.latestSnapshot();
+        frameSnapshotStep = snap.step;
+        for (int i = 0; i < snap.count; i++) {
+            GameItem gi = simulation.itemFor(snap.handle[i]);
+            if (gi == null) continue;
+            gi.x = snap.x[i];
+            gi.y = snap.y[i];
+            gi.angle = snap.angle[i];
+            gi.vx = snap.vx[i];
+            gi.vy = snap.vy[i];
+            gi.omega = snap.omega[i];
+            // só itens dentro da câmera atualizam o nó (posição e rotação) e são desenhados
+            boolean onScreen = gi.y + gi.getRenderedHeight() > 0 && gi.y < screenH
+                    && gi.x + gi.getRenderedWidth() > cameraX && gi.x < cameraX + screenW;
+            gi.setOnScreen(onScreen);
+            if (onScreen) gi.updateView();
+        }
 
-            if (gi.isOffScreen(screenH)) {
-                gamePane.getChildren().remove(gi.getNode());
-                it.remove();
+        // eventos depois do passo do snapshot ficam para o frame que chegar nele
+        while (simulation.hasEvent() && simulation.peekEventStep() <= snap.step) {
+            int kind = simulation.peekEventKind();
+            if (kind == Simulation.EVENT_FRAME) {
+                long frame = simulation.peekEventFrame();
+                long step = simulation.peekEventStep();
+                simulation.popEvent();
+                if (frame <= gameFrameBase) continue; // frame da partida anterior
+                if (effectSteps < 0) effectSteps = step;
+                if (replayRecorder != null) replayRecorder.applied(frame, step);
+                continue;
+            }
+            GameItem gi = simulation.itemFor(simulation.peekEventHandle());
+            Player p = players[simulation.peekEventPlayer()];
+            if (gi != null) {
+                gi.x = simulation.peekEventX();
+                gi.y = simulation.peekEventY();
+            }
+            simulation.popEvent();
+            if (gi == null) continue; // evento de uma partida anterior
+
+            simulation.release(gi);
+            items.remove(gi);
+            recycleItem(gi);
+            quietFrame = false;
+
+            if (kind == Simulation.EVENT_MISS) {
+                if (telemetry != null && !demoRun()) telemetry.emit(Telemetry.MISS, gi.type, gi.x, gi.y, level, totalScore());
+                // um reciclável perdido quebra a sequência de todos
+                if (gi.type != ItemType.BATTERY && !gi.type.isPowerUp()) {
+                    for (int i = 0; i < playerCount; i++) players[i].combo = 0;
+                }
                 continue;
             }
 
-            if (collector.intersects(gi)) {
-                gamePane.getChildren().remove(gi.getNode());
-                it.remove();
+            double cx = gi.x + gi.getRenderedWidth() / 2.0;
+            double cy = gi.y + gi.getRenderedHeight() / 2.0;
 
-                switch (gi.type) {
-                    case METAL -> {
-                        score += 2;
-                        SoundManager.playCollect();
-                    }
-                    case PLASTIC -> {
-                        score += 1;
-                        SoundManager.playCollect();
-                    }
-                    case REUSE -> {
-                        score += 3;
-                        SoundManager.playCollect();
-                    }
-                    case BATTERY -> {
-                        lives--;
-                        SoundManager.playExplosion();
+            boolean lifeLost = false;
+            switch (gi.type) {
+                case METAL -> {
+                    p.score += 2 * registerCatch(p);
+                    SoundManager.playCollect();
+                    particles.emitSparkles(cx, cy, 40);
+                }
+                case PLASTIC -> {
+                    p.score += 1 * registerCatch(p);
+                    SoundManager.playCollect();
+                    particles.emitSparkles(cx, cy, 30);
+                }
+                case REUSE -> {
+                    p.score += 3 * registerCatch(p);
+                    SoundManager.playCollect();
+                    particles.emitSparkles(cx, cy, 60);
+                }
+                case BATTERY -> {
+                    SoundManager.playExplosion();
+                    particles.emitDebris(cx, cy, 250);
+                    if (shieldCount > 0) {
+                        // escudo absorve a bomba e é consumido (o mais antigo primeiro)
+                        effects.cancel(shieldTimers[shieldHead]);
+                        popShield();
+                    } else {
+                        p.lives--;
+                        p.combo = 0;
+                        lifeLost = true;
+                        p.collector.flashDamage(frameNow);
+                        // no co-op quem fica sem vidas sai; a partida segue com o outro
+                        if (p.isOut() && playerCount > 1) p.collector.getNode().setVisible(false);
                     }
                 }
+                case MAGNET, SLOW_MOTION, SHIELD, WIDE_BIN -> {
+                    activatePowerUp(gi.type);
+                    SoundManager.playCollect();
+                    particles.emitSparkles(cx, cy, 80);
+                }
+            }
 
-                if (score > highScore) highScore = score;
-                if (lives <= 0) endGame();
-                updateHud();
+            if (GameRecording.COLLISION.isEnabled()) {
+                CollisionEvent e = new CollisionEvent();
+                e.itemType = gi.type.name();
+                e.score = p.score;
+                e.lives = p.lives;
+                e.commit();
+            }
+            if (telemetry != null && !demoRun()) {
+                int ev = lifeLost ? Telemetry.LIFE_LOST : Telemetry.CATCH;
+                telemetry.emit(ev, gi.type, gi.x, gi.y, level, totalScore());
+            }
+
+            if (p.score > highScore && !demoRun()) highScore = p.score;
+            updateHud();
+            if (allPlayersOut()) {
+                gameOverTimer = 0;
+                setState(GameState.GAME_OVER);
+                break;
+            }
+        }
+
+        // câmera lenta desacelera toda a física dos itens, inclusive o giro
+        simulation.setTimeScale(simTimeScale());
+        simulation.setFallSpeed(terminalFallSpeed());
+        simulation.setWorldSize(worldW, screenW, screenH); // vento na escala da tela, não do mundo
+        // ímã: puxa na horizontal tudo que não é bomba, depois que o item passa do terço da tela
+        // (no co-op, para a lixeira em jogo mais próxima)
+        double magnet1 = Double.NaN;
+        double magnet2 = Double.NaN;
+        for (int i = 0; i < players.length; i++) {
+            Player p = players[i];
+            if (i >= playerCount || p.isOut()) {
+                simulation.setHitbox(i, null, 0, 0);
+                continue;
             }
+            Collector c = p.collector;
+            simulation.setHitbox(i, c.getHitbox(), c.getHitboxX(), c.getHitboxY());
+            if (!isActive(ItemType.MAGNET)) continue;
+            if (Double.isNaN(magnet1)) magnet1 = c.getCenterX();
+            else magnet2 = c.getCenterX();
         }
-        collector.setHitboxVisible(showHitboxes);
-        items.forEach(i -> i.setHitboxVisible(showHitboxes));
+        simulation.setMagnet(magnet1, magnet2, screenH * 0.33, screenW * 0.6);
+        // depois do snapshot lido: o frame sempre entra num passo posterior ao que o FX viu
+        simulation.commitFrame();
     }
 
+    /** Atualiza só os textos cujo valor mudou (nenhuma String é criada sem mudança). */
     private void updateHud() {
-        scoreLabel.setText("Score: " + score);
-        livesLabel.setText("Lives: " + lives);
-        highScoreLabel.setText("High: " + highScore);
+        for (int i = 0; i < playerCount; i++) players[i].updateHud();
+        if (highScore != hudHighScore) {
+            hudHighScore = highScore;
+            highScoreLabel.setText("High: " + highScore);
+        }
+
+        int effectsKey = (isActive(ItemType.MAGNET) ? 1 : 0) | (isActive(ItemType.SLOW_MOTION) ? 2 : 0)
+                | (isActive(ItemType.WIDE_BIN) ? 4 : 0) | (shieldCount << 3);
+        if (effectsKey != hudEffects) {
+            hudEffects = effectsKey;
+            StringBuilder fx = new StringBuilder();
+            if (isActive(ItemType.MAGNET)) fx.append("Ímã ");
+            if (isActive(ItemType.SLOW_MOTION)) fx.append("Lento ");
+            if (shieldCount > 0) fx.append("Escudo(").append(shieldCount).append(") ");
+            if (isActive(ItemType.WIDE_BIN)) fx.append("Lixeira larga");
+            effectsLabel.setText(fx.toString());
+        }
+    }
+
+    // === Power-ups e combo ===
+
+    private int totalScore() {
+        int total = 0;
+        for (int i = 0; i < playerCount; i++) total += players[i].score;
+        return total;
+    }
+
+    private boolean allPlayersOut() {
+        for (int i = 0; i < playerCount; i++) {
+            if (!players[i].isOut()) return false;
+        }
+        return true;
+    }
+
+    private boolean isActive(ItemType powerUp) {
+        return activeEffects[powerUp.ordinal()] > 0;
+    }
+
+    /**
+     * Conta uma coleta reciclável no combo do jogador e reinicia o prazo de 3s para a próxima.
+     * @return multiplicador a aplicar nesta coleta
+     */
+    private int registerCatch(Player p) {
+        p.combo++;
+        effects.cancel(p.comboTimer);
+        p.comboTimer = effects.schedule(3.0, COMBO_TIMEOUT + p.index);
+        return p.comboMultiplier();
+    }
+
+    private void activatePowerUp(ItemType type) {
+        switch (type) {
+            case MAGNET, WIDE_BIN -> startPowerUp(type, effects.ticksFor(8.0));
+            case SLOW_MOTION -> startPowerUp(type, effects.ticksFor(6.0));
+            case SHIELD -> startPowerUp(type, effects.ticksFor(15.0));
+            default -> { }
+        }
+    }
+
+    /** Liga o power-up por {@code ticks} ticks da roda (coleta ou partida restaurada). */
+    private void startPowerUp(ItemType type, int ticks) {
+        switch (type) {
+            case MAGNET, SLOW_MOTION -> effects.scheduleTicks(ticks, type.ordinal());
+            case WIDE_BIN -> {
+                effects.scheduleTicks(ticks, type.ordinal());
+                for (Player p : players) p.collector.setWideFactor(1.5);
+            }
+            case SHIELD -> {
+                if (shieldCount == shieldTimers.length) return;
+                long handle = effects.scheduleTicks(ticks, type.ordinal());
+                if (handle < 0) return;
+                shieldTimers[(shieldHead + shieldCount) % shieldTimers.length] = handle;
+                shieldCount++;
+                return;
+            }
+            default -> { return; }
+        }
+        activeEffects[type.ordinal()]++;
+    }
+
+    private void popShield() {
+        shieldHead = (shieldHead + 1) % shieldTimers.length;
+        shieldCount--;
     }
 
+    /** Chamado pela roda de timers quando um efeito vence. */
+    private void onTimerExpired(int payload) {
+        if (payload >= COMBO_TIMEOUT) {
+            Player p = players[payload - COMBO_TIMEOUT];
+            p.combo = 0;
+            p.comboTimer = -1;
+        } else if (payload == ItemType.SHIELD.ordinal()) {
+            // todos duram o mesmo tempo: o que vence é sempre o mais antigo da fila
+            if (shieldCount > 0) popShield();
+        } else {
+            activeEffects[payload]--;
+            if (payload == ItemType.WIDE_BIN.ordinal() && activeEffects[payload] == 0) {
+                for (Player p : players) p.collector.setWideFactor(1.0);
+            }
+        }
+        updateHud();
+    }
+
+    /**
+     * Volta ao menu. Só o fim de jogo de verdade (sem vidas) envia o placar e descarta a
+     * partida salva; saindo pelo menu de pausa a partida continua disponível em "Continuar".
+     */
     private void endGame() {
-        inMenu = true;
+        if (exporter != null) {
+            finishExport();
+            return;
+        }
+        if (attractMode) {
+            stopAttractMode();
+            return;
+        }
+        if (autopilotPlayer) {
+            System.out.printf("Autopilot: score %d, nível %d | planejamento médio %.3f ms, pior %.3f ms (%d planos)%n",
+                    players[0].score, level, autopilot.getAveragePlanMillis(), autopilot.getWorstPlanMillis(), autopilot.getPlans());
+        }
+        boolean gameOver = state == GameState.GAME_OVER;
+        if (telemetry != null && state != GameState.MENU) {
+            int reason = gameOver ? Telemetry.REASON_NO_LIVES : Telemetry.REASON_QUIT;
+            telemetry.emitGameOver(level, totalScore(), reason);
+        }
+        setState(GameState.MENU);
+        input.reset();
+        if (INPUT_STATS) System.out.printf("Input: latência p50=%.2fms p95=%.2fms p99=%.2fms (%d eventos, %d descartados)%n",
+                input.getLatencyPercentileMillis(50), input.getLatencyPercentileMillis(95),
+                input.getLatencyPercentileMillis(99), input.getLatencySamples(), input.getDroppedEvents());
         SoundManager.stopMusic();
+        if (replayRecorder != null) replayRecorder.finish();
+        if (gameOver) {
+            for (int i = 0; i < playerCount; i++) HighScoreManager.submitAsync(players[i].score);
+            discardSession();
+        } else if (playerCount == 1) {
+            loadSavedSession(); // o pauseGame acabou de salvar: a leitura vem depois, na mesma fila de I/O
+        }
         resetGame();
+        particles.clear();
+        particles.render(); // o loop vai parar: limpa o canvas agora
         if (!rootStack.getChildren().contains(mainMenuPane))
             rootStack.getChildren().add(mainMenuPane);
         HighScoreManager.save(HIGH_SCORE_FILE, highScore);
     }
 
+    @Override
+    public void stop() {
+        // janela fechada no meio da partida: salva e espera a gravação terminar
+        boolean inGame = (state == GameState.PLAYING && !demoRun()) || state == GameState.PAUSED;
+        if (inGame && playerCount == 1) saveSession();
+        if (replayRecorder != null) replayRecorder.finish(); // partida interrompida também pode ser refeita
+        session.flush();
+    }
+
+    /** Recarga de assets: troca a imagem de todos os itens (vivos e no pool) e da lixeira. */
+    private void onSpriteReloaded(String resourceName) {
+        if (resourceName.equals(Collector.BIN_RESOURCE)) {
+            for (Player p : players) p.collector.reloadImage();
+        }
+        for (GameItem gi : items) {
+            if (resourceName.equals(gi.getResource())) gi.reloadImage();
+        }
+        for (ArrayDeque<GameItem> pool : itemPool.values()) {
+            for (GameItem gi : pool) {
+                if (resourceName.equals(gi.getResource())) gi.reloadImage();
+            }
+        }
+    }
+
     private void toggleHitboxes() {
         showHitboxes = !showHitboxes;
+        for (Player p : players) p.collector.setHitboxVisible(showHitboxes);
+        for (int i = 0; i < items.size(); i++) items.get(i).setHitboxVisible(showHitboxes);
     }
 
-    private void updateScreenSizeFromStage() {
-        Rectangle2D bounds = Screen.getPrimary().getVisualBounds();
-        if (primaryStage.isFullScreen()) {
-            screenW = bounds.getWidth();
-            screenH = bounds.getHeight();
-        } else {
-            screenW = primaryStage.getWidth();
-            screenH = primaryStage.getHeight();
-        }
-        gamePane.setPrefSize(screenW, screenH);
-        hud.setMinWidth(screenW);
+    private static long frameBudgetNanos(int fps) {
+        // sem limite: o JavaFX entrega no máximo ~60 pulsos/s, então o orçamento é o de 60
+        return 1_000_000_000L / (fps > 0 ? fps : 60);
+    }
 
-        groundImage.setFitWidth(screenW);
-        groundImage.setPreserveRatio(true);
-        groundImage.setSmooth(true);
+    /**
+     * Aplica o nível de qualidade escolhido pelo QualityController. Cada nível inclui
+     * as reduções dos anteriores.
+     */
+    private void applyQuality(QualityController.Tier tier) {
+        boolean smooth = tier == QualityController.Tier.HIGH;
+        groundChunks.setSmooth(smooth);
+        animatedBackground.setSmooth(smooth);
+        for (Player p : players) p.collector.setSmooth(smooth);
+        for (GameItem gi : items) gi.setSmooth(smooth);
+
+        boolean animateBackground = tier.compareTo(QualityController.Tier.STATIC_BACKGROUND) < 0;
+        if (animateBackground && state == GameState.PLAYING) animatedBackground.resume();
+        else animatedBackground.pause();
+
+        particles.setRenderScale(renderScale());
+        rebuildSizeDependentCaches();
+
+        if (QUALITY_LOG) System.out.printf("Qualidade: %s (trabalho médio %.1fms, pulso médio %.1fms)%n",
+                tier, quality.getAverageFrameMillis(), quality.getAveragePulseMillis());
+    }
 
-        double imageHeight = groundImage.getBoundsInParent().getHeight();
-        groundImage.setY(screenH - imageHeight);
+    /** Fração da resolução usada internamente pelo fundo e pelas partículas. */
+    private double renderScale() {
+        return quality.getTier() == QualityController.Tier.LOW_RESOLUTION ? 0.5 : 1.0;
+    }
 
-        ground.setWidth(screenW);
-        ground.setHeight(visibleGroundHeight);
-        ground.setY(screenH - visibleGroundHeight);
+    private void rebuildSizeDependentCaches() {
+        double s = worldScale.getX() * renderScale();
+        animatedBackground.rebuildAsync(screenW * s, screenH * s);
+        groundChunks.rebuildAsync(screenW * s);
+    }
 
-        double collectorHeight = screenH * 0.20;
-        double collectorY = ground.getY() - collectorHeight + 15;
-        double collectorX = collector.getNode().getTranslateX();
-        gamePane.getChildren().remove(collector.getNode());
-        collector = new Collector(collectorX, collectorY, collectorHeight);
-        ensureCollectorAndHudOnPane();
+    /**
+     * Ajusta o mundo ao tamanho atual da janela sem recriar nada: a cena lógica
+     * (screenW x screenH) recebe uma escala uniforme e é centralizada. Caches que dependem
+     * do tamanho em pixels (frames do fundo) são refeitos em background, uma vez só,
+     * depois que o redimensionamento para.
+     */
+    private void updateScreenSizeFromStage() {
+        Scene scene = primaryStage.getScene();
+        double viewW = scene.getWidth();
+        double viewH = scene.getHeight();
+        if (viewW <= 0 || viewH <= 0) return;
+
+        double s = Math.min(viewW / screenW, viewH / screenH);
+        worldScale.setX(s);
+        worldScale.setY(s);
+        gamePane.setLayoutX((viewW - screenW * s) / 2.0);
+        gamePane.setLayoutY((viewH - screenH * s) / 2.0);
+
+        resizeDebounce.playFromStart();
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        // o mesmo jar pode subir o servidor de ranking: --leaderboard-server [porta] [arquivo]
+        if (args.length > 0 && "--leaderboard-server".equals(args[0])) {
+            LeaderboardServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        GameRecording.startIfRequested();
         launch(args);
     }
 }
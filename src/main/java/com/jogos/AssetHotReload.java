@@ -0,0 +1,152 @@
+package com.jogos;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recarga de assets em tempo de desenvolvimento.
+ * <p>
+ * Ligada com {@code -Dreciclamack.hotReload=true} (ou com o caminho da pasta de recursos;
+ * padrão {@code src/main/resources/com/jogos}). Um {@link WatchService} observa a pasta dos
+ * sprites, as pastas de animação e {@code Audios/}. Rajadas de eventos (editores gravam o
+ * arquivo várias vezes) são agrupadas até ficarem {@value #QUIET_MILLIS} ms sem mudança; só
+ * os arquivos alterados são lidos e decodificados, nesta thread. A troca nos caches, nas
+ * ImageViews, nas listas de frames e nos AudioClips acontece depois, na thread do FX.
+ */
+public final class AssetHotReload {
+
+    /** Recebe, na thread do FX, os assets já decodificados. */
+    public interface Listener {
+        /** O cache do {@link ImageLoader} já tem a nova versão de {@code resourceName}. */
+        void onSpriteReloaded(String resourceName);
+
+        /** Novo frame de uma pasta de animação ({@code folder} = nome da pasta). */
+        void onFrameReloaded(String folder, String fileName, Image image);
+    }
+
+    private static final long QUIET_MILLIS = 250;
+
+    private final Path root;
+    private final Listener listener;
+    private final WatchService watcher;
+    private final Map<WatchKey, Path> dirs = new HashMap<>();
+
+    private AssetHotReload(Path root, Listener listener) throws IOException {
+        this.root = root;
+        this.listener = listener;
+        this.watcher = FileSystems.getDefault().newWatchService();
+        register(root);
+        try (DirectoryStream<Path> sub = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path dir : sub) register(dir);
+        }
+    }
+
+    /**
+     * Inicia a observação se {@code reciclamack.hotReload} estiver definido.
+     * @return a instância ativa, ou null se desligado ou a pasta não existir
+     */
+    public static AssetHotReload startIfRequested(Listener listener) {
+        String value = System.getProperty("reciclamack.hotReload");
+        if (value == null || value.isBlank() || "false".equalsIgnoreCase(value)) return null;
+        Path root = Path.of("true".equalsIgnoreCase(value) ? "src/main/resources/com/jogos" : value);
+        if (!Files.isDirectory(root)) {
+            System.err.println("AssetHotReload: pasta não encontrada -> " + root.toAbsolutePath());
+            return null;
+        }
+        try {
+            AssetHotReload reload = new AssetHotReload(root, listener);
+            Thread t = new Thread(reload::watchLoop, "asset-hot-reload");
+            t.setDaemon(true);
+            t.start();
+            System.out.println("AssetHotReload: observando " + root.toAbsolutePath());
+            return reload;
+        } catch (IOException e) {
+            System.err.println("AssetHotReload: não foi possível observar " + root + " -> " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void register(Path dir) throws IOException {
+        WatchKey key = dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        dirs.put(key, dir);
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                Set<Path> changed = new LinkedHashSet<>();
+                collect(watcher.take(), changed);
+                // debounce: continua juntando até a pasta ficar quieta
+                WatchKey more;
+                while ((more = watcher.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) collect(more, changed);
+                reload(changed);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // encerrando
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path dir = dirs.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (dir == null || !(event.context() instanceof Path name)) continue;
+            String file = name.toString();
+            if (file.endsWith(".png") || file.endsWith(".wav")) changed.add(dir.resolve(name));
+        }
+        key.reset();
+    }
+
+    /** Decodifica só os arquivos alterados e agenda a troca na thread do FX. */
+    private void reload(Set<Path> changed) {
+        List<Runnable> apply = new ArrayList<>();
+        for (Path file : changed) {
+            if (!Files.isRegularFile(file)) continue;
+            String fileName = file.getFileName().toString();
+            String folder = root.relativize(file.getParent()).toString();
+            try {
+                if (fileName.endsWith(".wav")) {
+                    Runnable swap = SoundManager.prepareReload(fileName, file);
+                    if (swap != null) apply.add(swap);
+                } else if (folder.isEmpty()) {
+                    Runnable swap = ImageLoader.prepareReload(fileName, Files.readAllBytes(file));
+                    if (swap != null) apply.add(() -> {
+                        swap.run();
+                        listener.onSpriteReloaded(fileName);
+                    });
+                } else {
+                    Image image = new Image(new ByteArrayInputStream(Files.readAllBytes(file)));
+                    if (!image.isError()) apply.add(() -> listener.onFrameReloaded(folder, fileName, image));
+                }
+                System.out.println("AssetHotReload: recarregado -> " + root.relativize(file));
+            } catch (IOException e) {
+                System.err.println("AssetHotReload: erro lendo " + file + " -> " + e.getMessage());
+            }
+        }
+        if (!apply.isEmpty()) Platform.runLater(() -> apply.forEach(Runnable::run));
+    }
+
+    public void close() {
+        try {
+            watcher.close();
+        } catch (IOException ignored) { }
+    }
+}
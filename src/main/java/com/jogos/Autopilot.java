@@ -0,0 +1,160 @@
+package com.jogos;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Piloto automático do coletor (modo demonstração e jogador de referência).
+ * <p>
+ * A cada frame projeta a queda dos itens vivos com a mesma física de {@link ItemPhysics}
+ * (velocidade terminal com arrasto linear, em forma fechada) e marca, em uma grade
+ * tempo x posição, quanto vale ter a lixeira em cada coluna em cada fatia do horizonte:
+ * recicláveis e power-ups somam, bombas subtraem muito. Uma programação dinâmica de trás
+ * para frente, limitada ao quanto a lixeira consegue andar por fatia, escolhe o melhor
+ * caminho; o coletor só segue o primeiro passo dele. Tudo em arrays pré-alocados: nada é
+ * alocado por frame e o custo é fixo (fatias x colunas x alcance), bem abaixo de 1 ms.
+ * <p>
+ * Não conhece o vento nem o ímã (o ímã só ajuda); o replanejamento a cada frame corrige o
+ * erro da previsão.
+ */
+public class Autopilot {
+
+    private static final int SLOTS = 24;               // horizonte de 2,4 s
+    private static final double SLOT_SECONDS = 0.1;
+    private static final int COLUMNS = 64;              // posições discretas da lixeira
+    private static final float DISCOUNT = 0.97f;        // prefere pegar antes a pegar depois
+    private static final float BOMB_PENALTY = -60f;
+
+    private final float[] reward = new float[SLOTS * COLUMNS];
+    private final float[] best = new float[(SLOTS + 1) * COLUMNS];
+
+    private long plans = 0;
+    private long totalNanos = 0;
+    private long worstNanos = 0;
+
+    /**
+     * Planeja e devolve a direção para {@link Collector#applyInput} neste frame.
+     *
+     * @param items        itens vivos (posições e velocidades do último snapshot)
+     * @param worldW       largura lógica do mundo
+     * @param viewW        largura da tela (a velocidade do coletor é proporcional a ela)
+     * @param terminalVy   velocidade de queda do nível atual (px/s)
+     * @param timeScale    escala de tempo da simulação (câmera lenta)
+     * @param frameSeconds duração do frame, para converter a velocidade do coletor em px/s
+     * @return direção entre -1 e 1 (frações param exatamente na coluna escolhida)
+     */
+    public double plan(List<GameItem> items, Collector collector, double worldW, double viewW,
+                       double terminalVy, double timeScale, double frameSeconds) {
+        long t0 = System.nanoTime();
+        double dir = solve(items, collector, worldW, viewW, terminalVy, timeScale, frameSeconds);
+        long nanos = System.nanoTime() - t0;
+        plans++;
+        totalNanos += nanos;
+        if (nanos > worstNanos) worstNanos = nanos;
+        return dir;
+    }
+
+    private double solve(List<GameItem> items, Collector collector, double worldW, double viewW,
+                         double terminalVy, double timeScale, double frameSeconds) {
+        Collector.Hitbox hb = collector.getHitbox();
+        double binW = hb.w();
+        double maxX = worldW - binW;
+        if (binW <= 0 || maxX <= 0) return 0;
+        double colStep = maxX / (COLUMNS - 1);
+        double catchY = collector.getHitboxY();
+        double speedPerFrame = collector.speedPerFrame(viewW);
+        double speed = speedPerFrame / Math.max(1e-3, frameSeconds);
+        int reach = Math.max(1, (int) (speed * SLOT_SECONDS / colStep)); // arredonda para baixo: alcançável
+
+        Arrays.fill(reward, 0f);
+        for (int i = 0; i < items.size(); i++) deposit(items.get(i), catchY, hb.h(), binW, colStep, worldW,
+                terminalVy, timeScale);
+
+        // programação dinâmica: best[s][c] = valor de estar na coluna c no fim da fatia s
+        Arrays.fill(best, SLOTS * COLUMNS, best.length, 0f);
+        for (int s = SLOTS - 1; s >= 0; s--) {
+            int row = s * COLUMNS;
+            int next = row + COLUMNS;
+            for (int c = 0; c < COLUMNS; c++) {
+                int lo = Math.max(0, c - reach);
+                int hi = Math.min(COLUMNS - 1, c + reach);
+                float m = best[next + lo];
+                for (int k = lo + 1; k <= hi; k++) if (best[next + k] > m) m = best[next + k];
+                best[row + c] = reward[row + c] + m * DISCOUNT;
+            }
+        }
+
+        // primeiro passo: melhor coluna alcançável na fatia 0; empate fica com a mais próxima
+        double cur = collector.x / colStep;
+        int c0 = (int) Math.round(cur);
+        int lo = Math.max(0, c0 - reach);
+        int hi = Math.min(COLUMNS - 1, c0 + reach);
+        int target = c0 < lo ? lo : Math.min(c0, hi);
+        float bestValue = best[target];
+        for (int c = lo; c <= hi; c++) {
+            float v = best[c];
+            if (v > bestValue + 1e-4f || (v > bestValue - 1e-4f && Math.abs(c - cur) < Math.abs(target - cur))) {
+                bestValue = v;
+                target = c;
+            }
+        }
+
+        double dx = target * colStep - collector.x;
+        return Math.max(-1, Math.min(1, dx / speedPerFrame));
+    }
+
+    /** Projeta um item até a linha da lixeira e soma seu valor nas colunas que o pegariam. */
+    private void deposit(GameItem gi, double catchY, double binH, double binW, double colStep, double worldW,
+                         double terminalVy, double timeScale) {
+        double w = gi.getRenderedWidth();
+        double h = gi.getRenderedHeight();
+        if (gi.y > catchY + binH) return; // já passou
+
+        // mesma integração de ItemPhysics, resolvida em forma fechada no tempo da simulação
+        double k = ItemPhysics.DRAG;
+        double vyRel = gi.vy - terminalVy;
+        int slot = -1;
+        double ix = gi.x;
+        for (int s = 0; s < SLOTS; s++) {
+            double t = (s + 1) * SLOT_SECONDS * timeScale; // fim da fatia s
+            double decay = (1 - Math.exp(-k * t)) / k;
+            if (gi.y + h + terminalVy * t + vyRel * decay >= catchY) {
+                slot = s;
+                ix = gi.x + gi.vx * decay;
+                break;
+            }
+        }
+        if (slot < 0) return; // fora do horizonte
+        ix = Math.max(0, Math.min(worldW - w, ix));
+
+        float value;
+        double margin = 0;
+        switch (gi.type) {
+            case METAL -> value = 2;
+            case PLASTIC -> value = 1;
+            case REUSE -> value = 3;
+            case BATTERY -> {
+                value = BOMB_PENALTY;
+                // bomba girando: usa a diagonal e ainda uma coluna de folga
+                margin = (Math.sqrt(w * w + h * h) - w) * 0.5 + colStep;
+            }
+            default -> value = 4; // power-ups
+        }
+
+        // a lixeira em bx pega o item se [bx, bx + binW] cruza [ix, ix + w]
+        int cLo = Math.max(0, (int) Math.ceil((ix - binW - margin) / colStep));
+        int cHi = Math.min(COLUMNS - 1, (int) Math.floor((ix + w + margin) / colStep));
+        int row = slot * COLUMNS;
+        for (int c = cLo; c <= cHi; c++) reward[row + c] += value;
+    }
+
+    public long getPlans() { return plans; }
+
+    public double getAveragePlanMillis() {
+        return plans == 0 ? 0 : totalNanos / (double) plans / 1e6;
+    }
+
+    public double getWorstPlanMillis() {
+        return worstNanos / 1e6;
+    }
+}
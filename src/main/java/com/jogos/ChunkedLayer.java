@@ -0,0 +1,143 @@
+package com.jogos;
+
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Faixa horizontal do mundo largo (o chão) montada em pedaços de uma tela de largura.
+ * <p>
+ * Só os pedaços perto da câmera existem na cena: um pool fixo de ImageViews é reposicionado
+ * quando a câmera cruza a borda de um pedaço, e os que ficaram para trás são reaproveitados
+ * à frente. Todos os pedaços mostram a mesma textura, decodificada uma vez no tamanho em
+ * pixels em que é desenhada e alternada com espelhamento (como no {@link AnimatedBackground}),
+ * então a memória não depende da largura do mundo.
+ */
+public class ChunkedLayer {
+
+    private static final int PREFETCH = 1; // pedaços posicionados além de cada borda da tela
+
+    private final Group root = new Group();
+    private final String resource;
+    private final double chunkW;
+    private final double chunkH;
+    private final int chunkCount;
+    // a tela cobre no máximo 2 pedaços, mais PREFETCH de cada lado
+    private final ImageView[] views = new ImageView[2 + 2 * PREFETCH];
+    private final int[] viewChunk = new int[views.length];
+
+    private int first = -1;
+    private int last = -1;
+    private int decodedW;
+    private int rebuildGeneration = 0;
+
+    /**
+     * @param resource   caminho absoluto do recurso no classpath
+     * @param chunkW     largura lógica de cada pedaço (a largura da tela)
+     * @param chunkCount quantos pedaços formam o mundo
+     */
+    public ChunkedLayer(String resource, double chunkW, int chunkCount) {
+        this.resource = resource;
+        this.chunkW = chunkW;
+        this.chunkCount = Math.max(1, chunkCount);
+
+        Image img = decode(resource, (int) Math.round(chunkW), 0);
+        if (img == null) throw new RuntimeException("Imagem não encontrada: " + resource);
+        chunkH = img.getHeight();
+        decodedW = (int) Math.round(chunkW);
+
+        for (int i = 0; i < views.length; i++) {
+            ImageView v = new ImageView(img);
+            v.setFitWidth(chunkW);
+            v.setFitHeight(chunkH);
+            v.setPreserveRatio(false);
+            v.setSmooth(true);
+            v.setVisible(false);
+            views[i] = v;
+            viewChunk[i] = -1;
+            root.getChildren().add(v);
+        }
+    }
+
+    private static Image decode(String resource, int width, int height) {
+        try (InputStream is = ChunkedLayer.class.getResourceAsStream(resource)) {
+            if (is == null) return null;
+            Image img = new Image(is, width, height, height <= 0, true);
+            return img.isError() ? null : img;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public double getChunkHeight() {
+        return chunkH;
+    }
+
+    /**
+     * Posiciona os pedaços para a câmera atual. Só mexe na cena quando a câmera entra em
+     * outro pedaço.
+     */
+    public void update(double cameraX, double viewW) {
+        int f = Math.max(0, (int) Math.floor(cameraX / chunkW) - PREFETCH);
+        int l = Math.min(chunkCount - 1, (int) Math.floor((cameraX + viewW) / chunkW) + PREFETCH);
+        if (f == first && l == last) return;
+        first = f;
+        last = l;
+
+        // libera o que saiu da janela
+        for (int i = 0; i < views.length; i++) {
+            if (viewChunk[i] >= 0 && (viewChunk[i] < f || viewChunk[i] > l)) {
+                viewChunk[i] = -1;
+                views[i].setVisible(false);
+            }
+        }
+        // ocupa as views livres com os pedaços que faltam
+        for (int c = f; c <= l; c++) {
+            if (isPlaced(c)) continue;
+            for (int i = 0; i < views.length; i++) {
+                if (viewChunk[i] >= 0) continue;
+                viewChunk[i] = c;
+                ImageView v = views[i];
+                v.setLayoutX(c * chunkW);
+                v.setScaleX((c & 1) == 1 ? -1 : 1); // espelhada: emenda sem costura
+                v.setVisible(true);
+                break;
+            }
+        }
+    }
+
+    private boolean isPlaced(int chunk) {
+        for (int c : viewChunk) if (c == chunk) return true;
+        return false;
+    }
+
+    /**
+     * Redecodifica a textura na nova largura em pixels em uma thread de fundo; a antiga
+     * continua sendo exibida até a nova ficar pronta.
+     */
+    public void rebuildAsync(double pixelWidth) {
+        int w = Math.max(1, (int) Math.round(pixelWidth));
+        if (w == decodedW) return;
+        int h = Math.max(1, (int) Math.round(chunkH * w / chunkW));
+        int generation = ++rebuildGeneration;
+        CompletableFuture.supplyAsync(() -> decode(resource, w, h)).thenAccept(img -> Platform.runLater(() -> {
+            if (img == null || generation != rebuildGeneration) return;
+            for (ImageView v : views) v.setImage(img);
+            decodedW = w;
+        }));
+    }
+
+    public void setSmooth(boolean smooth) {
+        for (ImageView v : views) v.setSmooth(smooth);
+    }
+
+    public Node getNode() {
+        return root;
+    }
+}
@@ -1,6 +1,9 @@
 package com.jogos;
 
+import com.jogos.utils.AlphaMask;
 import com.jogos.utils.ImageUtils;
+import com.jogos.utils.OrientedBox;
+import com.jogos.utils.Palette;
 import javafx.application.Platform;
 import javafx.geometry.Bounds;
 import javafx.geometry.Rectangle2D;
@@ -13,10 +16,18 @@ import javafx.scene.shape.Rectangle;
 
 /**
  * Collector com personagem animado à direita (sincronizado com o movimento).
- * Mantém hitbox e velocidade originais.
+ * A colisão usa o retângulo visível da lixeira como fase larga e a máscara
+ * alfa (pixel a pixel) como confirmação; itens girando são tratados como caixas
+ * orientadas (SAT).
  */
 public class Collector {
 
+    public static final String BIN_RESOURCE = "MackTrashBin.png";
+
+    /** Flash vermelho da lixeira quando uma bomba tira uma vida. */
+    public static final Palette DAMAGE_FLASH = Palette.tint(0xFF2020, 0.6);
+    private static final long FLASH_NANOS = 180_000_000L;
+
     private final Group node; // imageView + hitbox + personagem
     private final ImageView imageView;
     private final Rectangle hitboxRect;
@@ -24,11 +35,20 @@ public class Collector {
 
     public double x, y;
     private final double desiredHeight;
-    private final Rectangle2D visibleInImage;
+    private Rectangle2D visibleInImage;
     private double renderedW = 0;
     private double renderedH = 0;
     private double hitboxXLocal = 0;
     private double hitboxYLocal = 0;
+    private double hitboxW = 0;
+    private double hitboxH = 0;
+    private AlphaMask mask; // máscara no tamanho renderizado atual
+    private Hitbox hitbox;
+    private final double baseFitHeight;
+    private double wideFactor = 1.0;
+    private Palette palette;       // null => cores originais
+    private boolean flashing = false;
+    private long flashUntil;       // nanoTime em que o flash de dano acaba
 
     // controla a animação atual
     private String currentAnimation = "Parado";
@@ -39,15 +59,16 @@ public class Collector {
         this.y = y + 60; 
         this.desiredHeight = desiredHeight;
 
-        Image img = ImageLoader.load("MackTrashBin.png");
-        Rectangle2D visible = ImageLoader.getVisibleBounds("MackTrashBin.png");
+        Image img = ImageLoader.load(BIN_RESOURCE);
+        Rectangle2D visible = ImageLoader.getVisibleBounds(BIN_RESOURCE);
         this.visibleInImage = visible != null ? visible : new Rectangle2D(0, 0, img.getWidth(), img.getHeight());
 
         imageView = new ImageView(img);
         imageView.setViewport(this.visibleInImage);
 
         double coletorScale = 0.75;
-        imageView.setFitHeight(desiredHeight * coletorScale);
+        baseFitHeight = desiredHeight * coletorScale;
+        imageView.setFitHeight(baseFitHeight);
         imageView.setPreserveRatio(true);
         imageView.setSmooth(true);
 
@@ -79,10 +100,19 @@ public class Collector {
         imageView.setTranslateX(offsetX);
         imageView.setTranslateY(offsetY);
 
-        double hbW = Math.max(12, renderedW * 0.55);
-        double hbH = Math.max(12, renderedH * 0.48);
-        hitboxXLocal = offsetX + (renderedW - hbW) / 2.0;
-        hitboxYLocal = offsetY + renderedH - hbH - (renderedH * 0.04);
+        // hitbox = área visível renderizada; a precisão fica por conta da máscara
+        double hbW = Math.max(12, renderedW);
+        double hbH = Math.max(12, renderedH);
+        hitboxXLocal = offsetX;
+        hitboxYLocal = offsetY;
+        hitboxW = hbW;
+        hitboxH = hbH;
+
+        int maskW = (int) Math.round(renderedW);
+        int maskH = (int) Math.round(renderedH);
+        if (maskW > 0 && maskH > 0 && (mask == null || mask.getWidth() != maskW || mask.getHeight() != maskH)) {
+            mask = ImageLoader.getMask(BIN_RESOURCE, maskW, maskH);
+        }
 
         hitboxRect.setTranslateX(hitboxXLocal);
         hitboxRect.setTranslateY(hitboxYLocal);
@@ -91,13 +121,33 @@ public class Collector {
     }
 
     public void applyInput(double dir, double screenWidth) {
-        double speed = Math.max(6.0, screenWidth * 0.012);
-        x += dir * speed;
+        applyInput(dir, screenWidth, 1.0);
+    }
+
+    /**
+     * Move o coletor por uma fração do frame (sub-passo de entrada).
+     * @param frameFraction parte do frame em que a direção {@code dir} esteve ativa (0..1)
+     */
+    public void applyInput(double dir, double screenWidth, double frameFraction) {
+        applyInput(dir, screenWidth, screenWidth, frameFraction);
+    }
+
+    /**
+     * Como {@link #applyInput(double, double, double)}, limitado a um mundo mais largo que a
+     * tela (a velocidade continua proporcional à tela).
+     */
+    public void applyInput(double dir, double screenWidth, double worldWidth, double frameFraction) {
+        applyInput(dir, screenWidth, 0, worldWidth, frameFraction);
+    }
+
+    /** Como acima, limitado ao trecho [minX, maxX] (co-op com câmera compartilhada). */
+    public void applyInput(double dir, double screenWidth, double minX, double maxX, double frameFraction) {
+        x += dir * speedPerFrame(screenWidth) * frameFraction;
 
         double visibleW = renderedW > 0 ? renderedW :
                 (desiredHeight * (imageView.getImage().getWidth() / imageView.getImage().getHeight()));
-        if (x < 0) x = 0;
-        if (x + visibleW > screenWidth) x = screenWidth - visibleW;
+        if (x + visibleW > maxX) x = maxX - visibleW;
+        if (x < minX) x = minX;
 
         if (dir < 0) setAnimation("Empurrando");
         else if (dir > 0) setAnimation("Puxando");
@@ -106,6 +156,11 @@ public class Collector {
         updateView();
     }
 
+    /** Deslocamento por frame com a direção no máximo. */
+    public double speedPerFrame(double screenWidth) {
+        return Math.max(6.0, screenWidth * 0.012);
+    }
+
     private void setAnimation(String anim) {
         currentAnimation = anim;
         personagem.play(anim);
@@ -137,18 +192,136 @@ public class Collector {
         personagem.getNode().setTranslateY(personagemOffsetY);
     }
 
+    /**
+     * Alarga a lixeira (power-up). A hitbox e a máscara acompanham o novo tamanho
+     * na próxima atualização, pois são derivadas dos bounds da imagem.
+     */
+    public void setWideFactor(double factor) {
+        if (factor == wideFactor) return;
+        wideFactor = factor;
+        if (factor == 1.0) {
+            imageView.setPreserveRatio(true);
+            imageView.setFitWidth(0);
+        } else {
+            double aspect = visibleInImage.getWidth() / visibleInImage.getHeight();
+            imageView.setPreserveRatio(false);
+            imageView.setFitWidth(baseFitHeight * aspect * factor);
+        }
+        imageView.setFitHeight(baseFitHeight);
+        updateView();
+    }
+
+    /** Recarrega a imagem da lixeira do cache (recarga de assets em desenvolvimento). */
+    public void reloadImage() {
+        Image img = ImageLoader.loadVariant(BIN_RESOURCE, flashing ? DAMAGE_FLASH : palette);
+        if (img == null) return;
+        Rectangle2D visible = ImageLoader.getVisibleBounds(BIN_RESOURCE);
+        visibleInImage = visible != null ? visible : new Rectangle2D(0, 0, img.getWidth(), img.getHeight());
+        imageView.setImage(img);
+        imageView.setViewport(visibleInImage);
+        double factor = wideFactor;
+        wideFactor = -1; // força reaplicar a largura com a nova proporção
+        setWideFactor(factor);
+        mask = null; // recalculada em updateView()
+        updateView();
+    }
+
+    public double getCenterX() {
+        return x + renderedW / 2.0;
+    }
+
+    public void setSmooth(boolean smooth) {
+        imageView.setSmooth(smooth);
+        personagem.setSmooth(smooth);
+    }
+
+    /** Avança a animação do personagem; chamado pelo loop do jogo (parado em menus e pausa). */
+    public void animate(long now) {
+        personagem.advance(now);
+        if (flashing && now - flashUntil >= 0) {
+            flashing = false;
+            imageView.setImage(ImageLoader.loadVariant(BIN_RESOURCE, palette));
+        }
+    }
+
+    /**
+     * Cores da lixeira (segundo jogador); null = original. A variante vem pronta do cache do
+     * ImageLoader, então trocar de cor é só trocar a textura.
+     */
+    public void setPalette(Palette p) {
+        palette = p;
+        flashing = false;
+        Image img = ImageLoader.loadVariant(BIN_RESOURCE, p);
+        if (img != null) imageView.setImage(img);
+    }
+
+    /** Pisca a lixeira em vermelho por 180 ms; a cor volta em {@link #animate}. */
+    public void flashDamage(long now) {
+        Image img = ImageLoader.loadVariant(BIN_RESOURCE, DAMAGE_FLASH);
+        if (img == null) return;
+        imageView.setImage(img);
+        flashing = true;
+        flashUntil = now + FLASH_NANOS;
+    }
+
     public Node getNode() { return node; }
     public void setHitboxVisible(boolean visible) { hitboxRect.setVisible(visible); }
 
-    public boolean intersects(GameItem item) {
-        Bounds hb = hitboxRect.localToScene(hitboxRect.getBoundsInLocal());
-        Rectangle2D ri = new Rectangle2D(hb.getMinX(), hb.getMinY(), hb.getWidth(), hb.getHeight());
-        Rectangle2D rj = item.getGlobalBounds();
-        return ri.intersects(rj);
+    /**
+     * Forma da hitbox da lixeira (tamanho e máscara alfa). Imutável, então pode ser lida pela
+     * thread de simulação; só é recriada quando a lixeira muda de tamanho. A posição é
+     * passada à parte em cada teste, para que mover o coletor não aloque nada.
+     */
+    public record Hitbox(double w, double h, AlphaMask mask) {
+
+        /**
+         * Testa um item (retângulo renderizado em ix, iy com o ângulo dado) contra a lixeira
+         * posicionada em (x, y).
+         */
+        public boolean hits(double x, double y, double ix, double iy, double iw, double ih,
+                            double angle, AlphaMask itemMask) {
+            if (w <= 0 || h <= 0) return false;
+            if (angle != 0) return hitsRotated(x, y, ix, iy, iw, ih, angle);
+
+            // fase larga: retângulos em coordenadas do gamePane
+            if (ix >= x + w || ix + iw <= x || iy >= y + h || iy + ih <= y) return false;
+
+            // fase fina: AND das palavras da máscara deslocadas
+            if (mask == null || itemMask == null) return true;
+            return AlphaMask.overlaps(mask, (int) Math.round(x), (int) Math.round(y),
+                    itemMask, (int) Math.round(ix), (int) Math.round(iy));
+        }
+
+        /**
+         * Item girando: círculo envolvente como fase larga (sem trigonometria), depois SAT entre
+         * a caixa orientada do item e o retângulo da lixeira, e por fim a máscara da lixeira.
+         */
+        private boolean hitsRotated(double x, double y, double ix, double iy, double iw, double ih, double angle) {
+            double hw = iw * 0.5;
+            double hh = ih * 0.5;
+            double cx = ix + hw;
+            double cy = iy + hh;
+            double r = Math.sqrt(hw * hw + hh * hh);
+            if (cx + r <= x || cx - r >= x + w || cy + r <= y || cy - r >= y + h) return false;
+
+            double cos = Math.cos(angle);
+            double sin = Math.sin(angle);
+            if (!OrientedBox.overlapsRect(cx, cy, hw, hh, cos, sin, x, y, w, h)) return false;
+            if (mask == null) return true;
+            return OrientedBox.overlapsMask(mask, (int) Math.round(x), (int) Math.round(y), cx, cy, hw, hh, cos, sin);
+        }
     }
 
-    public Rectangle2D getBounds() {
-        Bounds hb = hitboxRect.localToScene(hitboxRect.getBoundsInLocal());
-        return new Rectangle2D(hb.getMinX(), hb.getMinY(), hb.getWidth(), hb.getHeight());
+    /** Forma atual da hitbox; só é recriada quando a lixeira muda de tamanho. */
+    public Hitbox getHitbox() {
+        Hitbox hb = hitbox;
+        if (hb == null || hb.w() != hitboxW || hb.h() != hitboxH || hb.mask() != mask) {
+            hb = new Hitbox(hitboxW, hitboxH, mask);
+            hitbox = hb;
+        }
+        return hb;
     }
+
+    public double getHitboxX() { return x + hitboxXLocal; }
+    public double getHitboxY() { return y + hitboxYLocal; }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.jogos;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gravação dos frames da exportação de vídeo em uma sequência numerada de PNGs.
+ * <p>
+ * A thread do FX só copia os pixels do snapshot para um buffer livre e o coloca na fila;
+ * workers em paralelo convertem e codificam. Os buffers são um pool fixo (workers + 2):
+ * a memória não cresce com a duração do vídeo. Sem buffer livre, {@link #offer} devolve
+ * false na hora e o FX tenta de novo no próximo pulso; ele nunca espera a codificação.
+ * <p>
+ * Cada worker reaproveita a sua BufferedImage; os arquivos saem como
+ * {@code frame_00000.png}, {@code frame_00001.png}... (ffmpeg: {@code -i frame_%05d.png}).
+ */
+public final class FrameExporter {
+
+    private static final class Frame {
+        final int[] pixels;
+        int index;
+
+        Frame(int size) {
+            pixels = new int[size];
+        }
+    }
+
+    private static final Frame END = new Frame(0);
+
+    private final Path dir;
+    private final int width;
+    private final int height;
+    private final BlockingQueue<Frame> free;
+    private final BlockingQueue<Frame> filled;
+    private final Thread[] workers;
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * @param dir     pasta de saída (criada se não existir)
+     * @param width   largura dos frames em pixels
+     * @param height  altura dos frames em pixels
+     * @param threads quantos workers codificam em paralelo
+     */
+    public FrameExporter(Path dir, int width, int height, int threads) throws IOException {
+        Files.createDirectories(dir);
+        this.dir = dir;
+        this.width = width;
+        this.height = height;
+        int buffers = threads + 2;
+        free = new ArrayBlockingQueue<>(buffers);
+        filled = new ArrayBlockingQueue<>(buffers + threads); // cabe também um END por worker
+        for (int i = 0; i < buffers; i++) free.add(new Frame(width * height));
+
+        workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(this::encodeLoop, "frame-encoder-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Copia o frame para um buffer livre e agenda a codificação. Não bloqueia.
+     * @param image snapshot do tamanho do exportador
+     * @param index número do frame (nome do arquivo)
+     * @return false se todos os buffers estão ocupados (tentar de novo mais tarde)
+     */
+    public boolean offer(Image image, int index) {
+        Frame f = free.poll();
+        if (f == null) return false;
+        image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), f.pixels, 0, width);
+        f.index = index;
+        filled.add(f); // nunca cheia: os frames em circulação são só os do pool
+        return true;
+    }
+
+    /** Há buffer livre para mais um frame agora. */
+    public boolean canOffer() {
+        return !free.isEmpty();
+    }
+
+    private void encodeLoop() {
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] target = ((DataBufferInt) out.getRaster().getDataBuffer()).getData();
+        try {
+            while (true) {
+                Frame f = filled.take();
+                if (f == END) return;
+                int index = f.index;
+                System.arraycopy(f.pixels, 0, target, 0, target.length);
+                free.add(f); // devolve o buffer antes da parte lenta
+                try {
+                    ImageIO.write(out, "png", dir.resolve(String.format("frame_%05d.png", index)).toFile());
+                    written.incrementAndGet();
+                } catch (IOException e) {
+                    if (failed.getAndIncrement() == 0)
+                        System.err.println("FrameExporter: erro gravando frame " + index + " -> " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            // encerrando
+        }
+    }
+
+    /**
+     * Espera os frames pendentes serem gravados e encerra os workers. Bloqueia: chamar fora
+     * da thread do FX.
+     */
+    public void finish() {
+        for (int i = 0; i < workers.length; i++) filled.add(END);
+        for (Thread t : workers) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("FrameExporter: %d frames %dx%d em %s (%.1f s, %.1f frames/s, %d erros)%n",
+                written.get(), width, height, dir.toAbsolutePath(), seconds, written.get() / seconds, failed.get());
+    }
+
+    public int getWrittenFrames() {
+        return written.get();
+    }
+}
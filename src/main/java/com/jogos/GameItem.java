@@ -1,30 +1,47 @@
 package com.jogos;
 
+import com.jogos.utils.AlphaMask;
 import com.jogos.utils.ImageUtils;
+import com.jogos.utils.Palette;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.Arc;
+import javafx.scene.shape.ArcType;
+import javafx.scene.shape.Polygon;
 import javafx.scene.shape.Rectangle;
 
 /**
  * GameItem:
- * - tenta carregar imagem via ImageLoader
+ * - tenta carregar imagem via ImageLoader; power-ups (ainda sem sprite) desenham um ícone com formas
  * - usa visible bounds da imagem (ImageUtils) para definir viewport + hitbox
- * - expõe métodos: updateView(), isOffScreen(...), getGlobalBounds(), setHitboxVisible(...)
+ * - gera (via cache) a máscara alfa no tamanho renderizado para colisão por pixel
+ * - pode trocar para uma variante recolorida do sprite (cache do ImageLoader), mesma máscara
+ * - posição e ângulo vêm dos snapshots da Simulation; a rotação só é aplicada ao nó em updateView()
+ * - expõe métodos: updateView(), getMask(), setHitboxVisible(...)
  */
 public class GameItem {
     public final ItemType type;
     public double x;
     public double y;
+    public double angle;   // radianos, copiado do snapshot da Simulation
+    public double vx, vy, omega; // idem (usados ao salvar a partida)
+    int handle = -1;       // handle do corpo na Simulation
     private final double logicalSize; // target size on screen (max dimension)
 
     private final Group node; // imageView + hitbox
+    private boolean onScreen = true;
     private final ImageView imageView;
     private final Rectangle hitboxRect;
+    private final String resource; // null => retângulo colorido ou ícone de power-up
     private Rectangle2D visibleInImage; // pixels inside original image
+    private double renderedW;
+    private double renderedH;
+    private AlphaMask mask; // null => colisão só por retângulo
+    private Palette palette; // null => cores originais
 
     public GameItem(ItemType type, double startX, double startY, double size) {
         this.type = type;
@@ -32,39 +49,17 @@ public class GameItem {
         this.y = startY;
         this.logicalSize = Math.max(24, size);
 
-        // resource mapping
-        String res = switch (type) {
-            case METAL -> "BrokenComputer.png";
-            case PLASTIC -> "BrokenPhone.png";
-            case REUSE -> "Battery.png";
-            case BATTERY -> "Bomba.png";  
-            default -> null;
-        };
-
-
+        String res = resourceFor(type);
         Image img = null;
         if (res != null) img = ImageLoader.load(res);
 
         if (img != null) {
-            visibleInImage = ImageLoader.getVisibleBounds(res);
-            if (visibleInImage == null) visibleInImage = new Rectangle2D(0, 0, img.getWidth(), img.getHeight());
-
-            imageView = new ImageView(img);
-            imageView.setViewport(visibleInImage);
-
-            // scale to logicalSize using width of visible viewport
-            double vw = visibleInImage.getWidth();
-            double vh = visibleInImage.getHeight();
-            if (vw <= 0) vw = img.getWidth();
-            double scale = logicalSize / vw;
-            imageView.setFitWidth(vw * scale);
+            resource = res;
+            imageView = new ImageView();
             imageView.setPreserveRatio(true);
             imageView.setSmooth(true);
-
-            // create hitbox sized to rendered viewport scaled
-            double renderedW = vw * scale;
-            double renderedH = vh * scale;
-            hitboxRect = new Rectangle(renderedW, renderedH);
+            hitboxRect = new Rectangle();
+            applyImage(img);
             hitboxRect.setFill(Color.color(0, 1, 0, 0.0));
             hitboxRect.setStroke(Color.LIME);
             hitboxRect.setVisible(false);
@@ -79,19 +74,36 @@ public class GameItem {
 
         } else {
             // fallback: plain rectangle
+            resource = null;
             imageView = null;
+            renderedW = logicalSize;
+            renderedH = logicalSize;
+            mask = null;
             Rectangle fallback = new Rectangle(logicalSize, logicalSize, switch (type) {
                 case METAL -> Color.SILVER;
                 case PLASTIC -> Color.DEEPSKYBLUE;
                 case REUSE -> Color.GOLD;
                 case BATTERY -> Color.CRIMSON;
+                case MAGNET -> Color.MAGENTA;
+                case SLOW_MOTION -> Color.CYAN;
+                case SHIELD -> Color.ROYALBLUE;
+                case WIDE_BIN -> Color.LIMEGREEN;
                 default -> Color.GRAY;
             });
             hitboxRect = new Rectangle(logicalSize, logicalSize);
             hitboxRect.setFill(Color.TRANSPARENT);
             hitboxRect.setStroke(Color.LIME);
             hitboxRect.setVisible(false);
-            node = new Group(fallback, hitboxRect);
+            Group icon = powerUpIcon(type, logicalSize);
+            if (icon != null) {
+                fallback.setArcWidth(logicalSize * 0.35);
+                fallback.setArcHeight(logicalSize * 0.35);
+                fallback.setStroke(Color.WHITE);
+                fallback.setStrokeWidth(logicalSize * 0.05);
+                node = new Group(fallback, icon, hitboxRect);
+            } else {
+                node = new Group(fallback, hitboxRect);
+            }
             fallback.setTranslateX(0);
             fallback.setTranslateY(0);
             hitboxRect.setTranslateX(0);
@@ -101,26 +113,163 @@ public class GameItem {
         updateView();
     }
 
+    /** Sprite de cada tipo (relativo a com/jogos), ou null para os que não têm (ver {@link #powerUpIcon}). */
+    public static String resourceFor(ItemType type) {
+        return switch (type) {
+            case METAL -> "BrokenComputer.png";
+            case PLASTIC -> "BrokenPhone.png";
+            case REUSE -> "Battery.png";
+            case BATTERY -> "Bomba.png";
+            default -> null;
+        };
+    }
+
+    /**
+     * Ícone provisório dos power-ups, desenhado com formas sobre o fundo colorido, até
+     * existirem sprites para eles. Ocupa o quadrado {@code s x s}; null para os outros tipos.
+     */
+    static Group powerUpIcon(ItemType type, double s) {
+        return switch (type) {
+            case MAGNET -> {
+                // ímã em U com as pontas vermelhas
+                Arc u = new Arc(s * 0.5, s * 0.45, s * 0.25, s * 0.25, 180, 180);
+                u.setType(ArcType.OPEN);
+                u.setFill(null);
+                u.setStroke(Color.WHITE);
+                u.setStrokeWidth(s * 0.14);
+                Rectangle left = new Rectangle(s * 0.18, s * 0.2, s * 0.14, s * 0.25);
+                Rectangle right = new Rectangle(s * 0.68, s * 0.2, s * 0.14, s * 0.25);
+                left.setFill(Color.RED);
+                right.setFill(Color.RED);
+                yield new Group(u, left, right);
+            }
+            case SLOW_MOTION -> {
+                // ampulheta
+                Polygon glass = new Polygon(
+                        s * 0.28, s * 0.18, s * 0.72, s * 0.18, s * 0.5, s * 0.5,
+                        s * 0.72, s * 0.82, s * 0.28, s * 0.82, s * 0.5, s * 0.5);
+                glass.setFill(Color.WHITE);
+                Polygon sand = new Polygon(s * 0.36, s * 0.78, s * 0.64, s * 0.78, s * 0.5, s * 0.6);
+                sand.setFill(Color.GOLDENROD);
+                yield new Group(glass, sand);
+            }
+            case SHIELD -> {
+                // escudo com uma faixa no meio
+                Polygon shield = new Polygon(
+                        s * 0.5, s * 0.15, s * 0.78, s * 0.25, s * 0.74, s * 0.55,
+                        s * 0.5, s * 0.85, s * 0.26, s * 0.55, s * 0.22, s * 0.25);
+                shield.setFill(Color.WHITE);
+                Rectangle band = new Rectangle(s * 0.45, s * 0.2, s * 0.1, s * 0.6);
+                band.setFill(Color.ROYALBLUE);
+                yield new Group(shield, band);
+            }
+            case WIDE_BIN -> {
+                // lixeira com setas para os lados
+                Rectangle bin = new Rectangle(s * 0.34, s * 0.4, s * 0.32, s * 0.38);
+                bin.setFill(Color.WHITE);
+                Rectangle lid = new Rectangle(s * 0.3, s * 0.32, s * 0.4, s * 0.06);
+                lid.setFill(Color.WHITE);
+                Polygon leftArrow = new Polygon(s * 0.08, s * 0.55, s * 0.26, s * 0.42, s * 0.26, s * 0.68);
+                Polygon rightArrow = new Polygon(s * 0.92, s * 0.55, s * 0.74, s * 0.42, s * 0.74, s * 0.68);
+                leftArrow.setFill(Color.WHITE);
+                rightArrow.setFill(Color.WHITE);
+                yield new Group(bin, lid, leftArrow, rightArrow);
+            }
+            default -> null;
+        };
+    }
+
+    /**
+     * Ajusta viewport, escala, hitbox e máscara a partir da imagem (e dos bounds visíveis
+     * em cache no ImageLoader).
+     */
+    private void applyImage(Image img) {
+        visibleInImage = ImageLoader.getVisibleBounds(resource);
+        if (visibleInImage == null) visibleInImage = new Rectangle2D(0, 0, img.getWidth(), img.getHeight());
+        imageView.setImage(img);
+        imageView.setViewport(visibleInImage);
+
+        // scale to logicalSize using width of visible viewport
+        double vw = visibleInImage.getWidth();
+        double vh = visibleInImage.getHeight();
+        if (vw <= 0) vw = img.getWidth();
+        double scale = logicalSize / vw;
+        imageView.setFitWidth(vw * scale);
+
+        // hitbox sized to rendered viewport scaled
+        renderedW = vw * scale;
+        renderedH = vh * scale;
+        mask = ImageLoader.getMask(resource, (int) Math.round(renderedW), (int) Math.round(renderedH));
+        hitboxRect.setWidth(renderedW);
+        hitboxRect.setHeight(renderedH);
+    }
+
+    /**
+     * Recarrega o sprite do cache (recarga de assets em desenvolvimento). Um corpo que já
+     * está caindo mantém na simulação o tamanho e a máscara antigos até ser removido.
+     */
+    public void reloadImage() {
+        if (resource == null) return;
+        Image img = ImageLoader.loadVariant(resource, palette);
+        if (img != null) applyImage(img);
+    }
+
+    /**
+     * Mostra o sprite com outra paleta (null = original). Só troca a textura: o alfa é o
+     * mesmo, então viewport, hitbox e máscara continuam valendo.
+     */
+    public void setPalette(Palette p) {
+        if (p == palette || imageView == null) return;
+        Image img = ImageLoader.loadVariant(resource, p);
+        if (img == null) return;
+        palette = p;
+        imageView.setImage(img);
+    }
+
+    public Palette getPalette() { return palette; }
+
+    public String getResource() { return resource; }
+
     public Node getNode() { return node; }
 
+    /** Reaproveita o item (pool do App) em uma nova posição, sem criar nós. */
+    public void reset(double startX, double startY) {
+        x = startX;
+        y = startY;
+        angle = 0;
+        vx = vy = omega = 0;
+        setOnScreen(true);
+        updateView();
+    }
+
+    /** Itens fora da câmera ficam invisíveis: não são desenhados nem têm o nó atualizado. */
+    public void setOnScreen(boolean visible) {
+        if (visible == onScreen) return;
+        onScreen = visible;
+        node.setVisible(visible);
+    }
+
+    public double getLogicalSize() { return logicalSize; }
+
     public void updateView() {
         node.setTranslateX(x);
         node.setTranslateY(y);
+        node.setRotate(Math.toDegrees(angle));
     }
 
-    public boolean isOffScreen(double screenH) {
-        return y > screenH + 200;
+    public void setSmooth(boolean smooth) {
+        if (imageView != null) imageView.setSmooth(smooth);
     }
 
     public void setHitboxVisible(boolean visible) {
         hitboxRect.setVisible(visible);
     }
 
+    public double getRenderedWidth() { return renderedW; }
+    public double getRenderedHeight() { return renderedH; }
+
     /**
-     * Returns the global bounds of the hitbox (scene coords) for collision checks.
+     * Returns the pixel mask at rendered size, or null when the item is a plain rectangle.
      */
-    public Rectangle2D getGlobalBounds() {
-        javafx.geometry.Bounds b = hitboxRect.localToScene(hitboxRect.getBoundsInLocal());
-        return new Rectangle2D(b.getMinX(), b.getMinY(), b.getWidth(), b.getHeight());
-    }
+    public AlphaMask getMask() { return mask; }
 }
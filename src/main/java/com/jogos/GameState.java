@@ -0,0 +1,9 @@
+package com.jogos;
+
+/**
+ * Estados do jogo. Só PLAYING avança a simulação; em MENU e PAUSED o loop principal
+ * fica parado e a tela só é redesenhada quando algo muda (ou em cadência lenta).
+ */
+public enum GameState {
+    MENU, INTRO, PLAYING, PAUSED, GAME_OVER
+}
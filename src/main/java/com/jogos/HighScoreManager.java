@@ -1,12 +1,81 @@
 package com.jogos;
 
+import com.jogos.jfr.GameRecording;
+import com.jogos.jfr.HighScoreSaveEvent;
+import javafx.application.Platform;
+
 import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.IntConsumer;
 
+/**
+ * Recorde local em arquivo e, opcionalmente, cliente do {@link LeaderboardServer}.
+ * <p>
+ * O modo cliente é ligado com {@code -Dreciclamack.leaderboard=http://host:porta}
+ * (e {@code -Dreciclamack.kiosk=nome} para identificar o quiosque). O arquivo local
+ * continua sendo gravado sempre e é usado quando o servidor não responde; o recorde do
+ * servidor chega depois, sem segurar a abertura do jogo.
+ */
 public final class HighScoreManager {
 
+    private static final URI SERVER = parseServer(System.getProperty("reciclamack.leaderboard"));
+    private static final String KIOSK = System.getProperty("reciclamack.kiosk", "quiosque");
+    private static final Duration TIMEOUT = Duration.ofMillis(500);
+    private static HttpClient client;
+
+    private static URI parseServer(String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return URI.create(value.endsWith("/") ? value.substring(0, value.length() - 1) : value);
+        } catch (IllegalArgumentException e) {
+            System.err.println("HighScoreManager: endereço de ranking inválido: " + value);
+            return null;
+        }
+    }
+
+    private static synchronized HttpClient client() {
+        if (client == null) client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+        return client;
+    }
+
+    /** Recorde do arquivo local. Leitura síncrona e rápida: pode rodar na inicialização. */
     public static int load(Path p) {
+        return loadLocal(p);
+    }
+
+    /**
+     * Pede ao servidor de ranking a melhor pontuação sem bloquear quem chama. Se ele
+     * responder, {@code onBest} recebe o valor na thread do FX; sem servidor configurado
+     * ou sem resposta não é chamado (fica valendo o recorde local).
+     */
+    public static void loadRemoteAsync(IntConsumer onBest) {
+        if (SERVER == null) return;
+        HttpRequest req = HttpRequest.newBuilder(URI.create(SERVER + "/scores/top?n=1"))
+                .timeout(TIMEOUT).GET().build();
+        client().sendAsync(req, HttpResponse.BodyHandlers.ofString())
+                .thenAccept(resp -> {
+                    if (resp.statusCode() != 200) return;
+                    String first = resp.body().strip();
+                    int tab = first.indexOf('\t');
+                    if (tab <= 0) return;
+                    int best = Integer.parseInt(first.substring(0, tab));
+                    Platform.runLater(() -> onBest.accept(best));
+                })
+                .exceptionally(e -> {
+                    System.err.println("HighScoreManager: ranking indisponível, usando arquivo local -> " + e.getMessage());
+                    return null;
+                });
+    }
+
+    private static int loadLocal(Path p) {
         try {
             if (Files.exists(p)) {
                 String s = Files.readString(p).trim();
@@ -17,8 +86,37 @@ public final class HighScoreManager {
     }
 
     public static void save(Path p, int value) {
+        HighScoreSaveEvent event = GameRecording.HIGH_SCORE_SAVE.isEnabled() ? new HighScoreSaveEvent() : null;
+        if (event != null) event.begin();
+        boolean ok = false;
         try {
             Files.writeString(p, Integer.toString(value));
+            ok = true;
         } catch (IOException ignored) { }
+        if (event != null) {
+            event.path = p.toString();
+            event.value = value;
+            event.success = ok;
+            event.commit();
+        }
+    }
+
+    /**
+     * Envia a pontuação de uma partida ao servidor de ranking sem bloquear quem chama.
+     * Sem servidor configurado (ou se ele não responder) não faz nada: o recorde já
+     * fica no arquivo local via {@link #save}.
+     */
+    public static void submitAsync(int score) {
+        if (SERVER == null || score <= 0) return;
+        String query = "name=" + URLEncoder.encode(KIOSK, StandardCharsets.UTF_8) + "&score=" + score;
+        HttpRequest req = HttpRequest.newBuilder(URI.create(SERVER + "/scores?" + query))
+                .timeout(TIMEOUT)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        client().sendAsync(req, HttpResponse.BodyHandlers.discarding())
+                .exceptionally(e -> {
+                    System.err.println("HighScoreManager: falha ao enviar pontuação, mantida só no arquivo local -> " + e.getMessage());
+                    return null;
+                });
     }
-}
\ No newline at end of file
+}
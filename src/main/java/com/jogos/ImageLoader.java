@@ -1,17 +1,27 @@
 package com.jogos;
 
+import com.jogos.jfr.AssetLoadEvent;
+import com.jogos.jfr.GameRecording;
+import com.jogos.utils.AlphaMask;
 import com.jogos.utils.ImageUtils;
+import com.jogos.utils.Palette;
+import com.jogos.utils.SpriteVariants;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.image.Image;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class ImageLoader {
 
-    private static final Map<String, Image> imageCache = new HashMap<>();
-    private static final Map<String, Rectangle2D> boundsCache = new HashMap<>();
+    // concorrentes só para a recarga em desenvolvimento poder listar as chaves fora do FX
+    private static final Map<String, Image> imageCache = new ConcurrentHashMap<>();
+    private static final Map<String, Rectangle2D> boundsCache = new ConcurrentHashMap<>();
+    private static final Map<String, AlphaMask> maskCache = new ConcurrentHashMap<>();
 
     /**
      * Carrega uma imagem do classpath e faz cache automático.
@@ -19,8 +29,24 @@ public final class ImageLoader {
      * @return Image carregada ou null se não encontrada
      */
     public static Image load(String resourceName) {
-        if (imageCache.containsKey(resourceName)) {
-            return imageCache.get(resourceName);
+        return load(resourceName, 0, 0);
+    }
+
+    /**
+     * Carrega uma imagem já redimensionada (sem manter proporção) e faz cache por tamanho.
+     * Usa o {@link SpriteCache} persistente: se o recurso não mudou desde a última execução,
+     * os pixels e o bounding box vêm do arquivo mapeado, sem decodificar nem varrer a imagem.
+     * @param resourceName caminho relativo ao pacote com/jogos
+     * @param width largura desejada (0 = tamanho original)
+     * @param height altura desejada (0 = tamanho original)
+     * @return Image carregada ou null se não encontrada
+     */
+    public static Image load(String resourceName, double width, double height) {
+        String key = (width > 0 && height > 0)
+                ? resourceName + "#" + (int) width + "x" + (int) height
+                : resourceName;
+        if (imageCache.containsKey(key)) {
+            return imageCache.get(key);
         }
 
         String[] candidates = {
@@ -33,12 +59,51 @@ public final class ImageLoader {
         for (String r : candidates) {
             try (InputStream is = ImageLoader.class.getResourceAsStream(r)) {
                 if (is != null) {
-                    Image img = new Image(is);
-                    imageCache.put(resourceName, img);
+                    AssetLoadEvent event = GameRecording.ASSET_LOAD.isEnabled() ? new AssetLoadEvent() : null;
+                    if (event != null) {
+                        event.begin();
+                        event.resource = key;
+                    }
+                    byte[] data = is.readAllBytes();
+                    long hash = SpriteCache.hash(data);
+
+                    SpriteCache.Entry cached = SpriteCache.lookup(key, hash);
+                    if (cached != null) {
+                        imageCache.put(key, cached.image());
+                        boundsCache.put(key, cached.visibleBounds());
+                        if (event != null) {
+                            event.diskCacheHit = true;
+                            event.width = (int) cached.image().getWidth();
+                            event.height = (int) cached.image().getHeight();
+                            event.commit();
+                        }
+                        System.out.println("ImageLoader: recurso do cache -> " + r);
+                        return cached.image();
+                    }
+
+                    long t0 = System.nanoTime();
+                    Image img = (width > 0 && height > 0)
+                            ? new Image(new ByteArrayInputStream(data), width, height, false, true)
+                            : new Image(new ByteArrayInputStream(data));
+                    imageCache.put(key, img);
 
                     // calcula e armazena o bounding box visível
-                    Rectangle2D visible = ImageUtils.calculateVisibleBounds(img);
-                    boundsCache.put(resourceName, visible);
+                    int w = (int) img.getWidth();
+                    int h = (int) img.getHeight();
+                    long t1 = System.nanoTime();
+                    int[] argb = ImageUtils.readArgb(img);
+                    Rectangle2D visible = argb != null
+                            ? ImageUtils.calculateVisibleBounds(argb, w, h)
+                            : new Rectangle2D(0, 0, w, h);
+                    boundsCache.put(key, visible);
+                    if (event != null) {
+                        event.decodeNanos = t1 - t0;
+                        event.scanNanos = System.nanoTime() - t1;
+                        event.width = w;
+                        event.height = h;
+                        event.commit();
+                    }
+                    SpriteCache.store(key, hash, w, h, argb, visible);
 
                     System.out.println("ImageLoader: carregou recurso -> " + r);
                     return img;
@@ -52,6 +117,28 @@ public final class ImageLoader {
         return null;
     }
 
+    /**
+     * Variante recolorida de um sprite, gerada uma vez e guardada no mesmo cache das imagens
+     * (chave {@code recurso~paleta}). O alfa não muda, então {@link #getVisibleBounds} e
+     * {@link #getMask} do recurso original valem também para a variante.
+     * @param resourceName nome usado em load()
+     * @param palette recoloração; null devolve o original
+     * @return imagem recolorida, ou null se o recurso não foi encontrado
+     */
+    public static Image loadVariant(String resourceName, Palette palette) {
+        if (palette == null) return load(resourceName);
+        String key = resourceName + "~" + palette.key();
+        Image cached = imageCache.get(key);
+        if (cached != null) return cached;
+
+        Image base = load(resourceName);
+        if (base == null) return null;
+        Image variant = SpriteVariants.recolor(base, palette);
+        if (variant == null) return base;
+        imageCache.put(key, variant);
+        return variant;
+    }
+
     /**
      * Retorna o bounding box visível calculado para uma imagem já carregada.
      * @param resourceName nome do recurso usado em load()
@@ -60,11 +147,81 @@ public final class ImageLoader {
         return boundsCache.get(resourceName);
     }
 
+    /**
+     * Retorna a máscara de colisão da região visível da imagem, no tamanho renderizado.
+     * A máscara é calculada uma vez por (recurso, largura, altura) e fica em cache.
+     * @param resourceName nome do recurso usado em load()
+     * @param width largura renderizada em pixels
+     * @param height altura renderizada em pixels
+     * @return AlphaMask ou null se a imagem não foi encontrada
+     */
+    public static AlphaMask getMask(String resourceName, int width, int height) {
+        String key = resourceName + "@" + width + "x" + height;
+        AlphaMask mask = maskCache.get(key);
+        if (mask != null) return mask;
+
+        Image img = load(resourceName);
+        if (img == null) return null;
+        Rectangle2D visible = boundsCache.get(resourceName);
+        if (visible == null) visible = new Rectangle2D(0, 0, img.getWidth(), img.getHeight());
+
+        mask = ImageUtils.createAlphaMask(img, visible, width, height);
+        maskCache.put(key, mask);
+        return mask;
+    }
+
+    /**
+     * Decodifica de novo um recurso alterado, em todos os tamanhos que estão em cache.
+     * Roda fora da thread do FX; a troca nos caches só acontece quando o Runnable devolvido
+     * for executado (na thread do FX). As máscaras do recurso são descartadas e recalculadas
+     * sob demanda, assim como as variantes recoloridas.
+     * @param resourceName nome usado em load()
+     * @param data bytes novos do arquivo
+     * @return ação que aplica a troca, ou null se o recurso não estava carregado
+     */
+    public static Runnable prepareReload(String resourceName, byte[] data) {
+        List<String> keys = new ArrayList<>();
+        for (String key : imageCache.keySet()) {
+            if (key.equals(resourceName) || key.startsWith(resourceName + "#")) keys.add(key);
+        }
+        if (keys.isEmpty()) return null;
+
+        List<Image> images = new ArrayList<>();
+        List<Rectangle2D> bounds = new ArrayList<>();
+        for (String key : keys) {
+            int sep = key.indexOf('#');
+            Image img;
+            if (sep < 0) {
+                img = new Image(new ByteArrayInputStream(data));
+            } else {
+                String[] size = key.substring(sep + 1).split("x");
+                img = new Image(new ByteArrayInputStream(data),
+                        Integer.parseInt(size[0]), Integer.parseInt(size[1]), false, true);
+            }
+            if (img.isError()) return null;
+            int w = (int) img.getWidth();
+            int h = (int) img.getHeight();
+            int[] argb = ImageUtils.readArgb(img);
+            images.add(img);
+            bounds.add(argb != null ? ImageUtils.calculateVisibleBounds(argb, w, h) : new Rectangle2D(0, 0, w, h));
+        }
+
+        return () -> {
+            for (int i = 0; i < keys.size(); i++) {
+                imageCache.put(keys.get(i), images.get(i));
+                boundsCache.put(keys.get(i), bounds.get(i));
+            }
+            maskCache.keySet().removeIf(k -> k.startsWith(resourceName + "@"));
+            imageCache.keySet().removeIf(k -> k.startsWith(resourceName + "~"));
+        };
+    }
+
     /**
      * Limpa os caches (se quiser recarregar imagens modificadas durante o jogo).
      */
     public static void clearCache() {
         imageCache.clear();
         boundsCache.clear();
+        maskCache.clear();
     }
 }
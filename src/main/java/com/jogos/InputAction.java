@@ -0,0 +1,10 @@
+package com.jogos;
+
+public enum InputAction {
+    MOVE_LEFT, MOVE_RIGHT, MOVE_LEFT_P2, MOVE_RIGHT_P2, TOGGLE_HITBOXES, CONFIRM, BACK;
+
+    /** Ações contínuas, que passam pela fila com timestamp. */
+    public boolean isMove() {
+        return this == MOVE_LEFT || this == MOVE_RIGHT || this == MOVE_LEFT_P2 || this == MOVE_RIGHT_P2;
+    }
+}
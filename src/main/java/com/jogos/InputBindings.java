@@ -0,0 +1,42 @@
+package com.jogos;
+
+import javafx.scene.input.KeyCode;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Tabela de mapeamento tecla -> ação. Substitui as comparações fixas de KeyCode no App.
+ */
+public class InputBindings {
+
+    private final Map<KeyCode, InputAction> bindings = new EnumMap<>(KeyCode.class);
+
+    public static InputBindings defaults() {
+        InputBindings b = new InputBindings();
+        // jogador 1 em A/D, jogador 2 nas setas; sozinho, os dois pares movem a mesma lixeira
+        b.bind(KeyCode.A, InputAction.MOVE_LEFT);
+        b.bind(KeyCode.D, InputAction.MOVE_RIGHT);
+        b.bind(KeyCode.LEFT, InputAction.MOVE_LEFT_P2);
+        b.bind(KeyCode.RIGHT, InputAction.MOVE_RIGHT_P2);
+        b.bind(KeyCode.H, InputAction.TOGGLE_HITBOXES);
+        b.bind(KeyCode.ENTER, InputAction.CONFIRM);
+        b.bind(KeyCode.ESCAPE, InputAction.BACK);
+        return b;
+    }
+
+    public void bind(KeyCode key, InputAction action) {
+        bindings.put(key, action);
+    }
+
+    public void unbind(KeyCode key) {
+        bindings.remove(key);
+    }
+
+    /**
+     * @return ação associada à tecla ou null se a tecla não tem mapeamento
+     */
+    public InputAction get(KeyCode key) {
+        return bindings.get(key);
+    }
+}
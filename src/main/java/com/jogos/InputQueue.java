@@ -0,0 +1,74 @@
+package com.jogos;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila circular sem locks (um produtor, um consumidor) de transições de tecla.
+ * Cada evento guarda o instante (System.nanoTime()), a ação e se foi pressionada ou solta.
+ * Os arrays são pré-alocados; quando a fila enche, o evento é descartado e contado.
+ */
+public class InputQueue {
+
+    private final int mask;
+    private final long[] stamps;
+    private final byte[] actions;
+    private final boolean[] pressed;
+
+    private final AtomicLong head = new AtomicLong(); // próximo a ler
+    private final AtomicLong tail = new AtomicLong(); // próximo a escrever
+    private long dropped = 0;
+
+    public InputQueue(int capacityPowerOfTwo) {
+        if (Integer.bitCount(capacityPowerOfTwo) != 1)
+            throw new IllegalArgumentException("Capacidade deve ser potência de 2: " + capacityPowerOfTwo);
+        mask = capacityPowerOfTwo - 1;
+        stamps = new long[capacityPowerOfTwo];
+        actions = new byte[capacityPowerOfTwo];
+        pressed = new boolean[capacityPowerOfTwo];
+    }
+
+    public boolean offer(long stamp, InputAction action, boolean down) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            dropped++;
+            return false;
+        }
+        int i = (int) (t & mask);
+        stamps[i] = stamp;
+        actions[i] = (byte) action.ordinal();
+        pressed[i] = down;
+        tail.lazySet(t + 1); // publica o slot depois de escrito
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    /** Instante do próximo evento; só válido se !isEmpty(). */
+    public long peekStamp() {
+        return stamps[(int) (head.get() & mask)];
+    }
+
+    /** Ordinal da ação do próximo evento; só válido se !isEmpty(). */
+    public int peekAction() {
+        return actions[(int) (head.get() & mask)];
+    }
+
+    /** Se o próximo evento é de tecla pressionada; só válido se !isEmpty(). */
+    public boolean peekPressed() {
+        return pressed[(int) (head.get() & mask)];
+    }
+
+    public void pop() {
+        head.lazySet(head.get() + 1);
+    }
+
+    public void clear() {
+        head.set(tail.get());
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,152 @@
+package com.jogos;
+
+import javafx.scene.input.KeyCode;
+
+/**
+ * Subsistema de entrada.
+ * <p>
+ * As transições de tecla são carimbadas com System.nanoTime() no handler do JavaFX e
+ * enfileiradas em um {@link InputQueue}. A cada frame, {@link #processFrame} consome os
+ * eventos em ordem e divide o intervalo do frame em sub-passos, aplicando cada mudança de
+ * direção no instante correto. Assim um toque menor que um frame ainda move o coletor.
+ * <p>
+ * Também mede a latência entre o evento e sua aplicação na simulação (histograma fixo,
+ * sem alocação) e expõe percentis para ajuste nos quiosques.
+ */
+public class InputSystem {
+
+    /** Recebe um sub-passo de movimento: direção (-1, 0, 1) de cada jogador e fração do frame. */
+    @FunctionalInterface
+    public interface MoveStep {
+        void apply(double dir1, double dir2, double frameFraction);
+    }
+
+    private static final InputAction[] ACTIONS = InputAction.values();
+
+    // histograma de latência: baldes de 50µs até 50ms, o último acumula o excesso
+    private static final long BUCKET_NANOS = 50_000;
+    private static final int BUCKETS = 1001;
+
+    private final InputBindings bindings;
+    private final InputQueue queue = new InputQueue(256);
+    private final boolean[] held = new boolean[ACTIONS.length];
+    private final long[] latencyHistogram = new long[BUCKETS];
+    private long latencySamples = 0;
+    private ReplayRecorder recorder; // null = partida não gravada
+
+    public InputSystem(InputBindings bindings) {
+        this.bindings = bindings;
+    }
+
+    public InputBindings getBindings() {
+        return bindings;
+    }
+
+    /** Grava cada transição no instante em que é aplicada (null desliga). */
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Registra uma transição de tecla.
+     * @return a ação mapeada (para ações discretas como menu/confirmar) ou null
+     */
+    public InputAction onKey(KeyCode code, boolean down) {
+        InputAction action = bindings.get(code);
+        if (action == null) return null;
+        if (action.isMove()) {
+            queue.offer(System.nanoTime(), action, down);
+        }
+        return action;
+    }
+
+    /** Enfileira uma transição gravada, com o carimbo original (reprodução). */
+    public void inject(long stamp, int action, boolean down) {
+        queue.offer(stamp, ACTIONS[action], down);
+    }
+
+    public boolean isHeld(InputAction action) {
+        return held[action.ordinal()];
+    }
+
+    private double direction(InputAction left, InputAction right) {
+        double dir = 0;
+        if (held[left.ordinal()]) dir -= 1;
+        if (held[right.ordinal()]) dir += 1;
+        return dir;
+    }
+
+    private void apply(MoveStep step, double fraction) {
+        step.apply(direction(InputAction.MOVE_LEFT, InputAction.MOVE_RIGHT),
+                direction(InputAction.MOVE_LEFT_P2, InputAction.MOVE_RIGHT_P2), fraction);
+    }
+
+    /**
+     * Aplica os eventos ocorridos até {@code frameEnd}, em sub-passos.
+     * A soma das frações passadas para {@code step} é sempre 1.
+     *
+     * @param frameStart instante (nanoTime) do início do frame
+     * @param frameEnd   instante do fim do frame (o {@code now} do AnimationTimer)
+     */
+    public void processFrame(long frameStart, long frameEnd, MoveStep step) {
+        double span = Math.max(1, frameEnd - frameStart);
+        long cursor = frameStart;
+
+        while (!queue.isEmpty() && queue.peekStamp() <= frameEnd) {
+            long stamp = queue.peekStamp();
+            long t = Math.max(cursor, stamp);
+            if (t > cursor) {
+                apply(step, (t - cursor) / span);
+                cursor = t;
+            }
+            held[queue.peekAction()] = queue.peekPressed();
+            if (recorder != null) recorder.input(stamp, queue.peekAction(), queue.peekPressed());
+            queue.pop();
+            recordLatency(System.nanoTime() - stamp);
+        }
+
+        apply(step, (frameEnd - cursor) / span);
+    }
+
+    /** Solta todas as teclas e descarta eventos pendentes (ex.: ao voltar ao menu). */
+    public void reset() {
+        queue.clear();
+        for (int i = 0; i < held.length; i++) held[i] = false;
+    }
+
+    private void recordLatency(long nanos) {
+        int b = (int) Math.min(BUCKETS - 1, Math.max(0, nanos / BUCKET_NANOS));
+        latencyHistogram[b]++;
+        latencySamples++;
+    }
+
+    /**
+     * Percentil da latência entrada -> atualização.
+     * @param p percentil entre 0 e 100
+     * @return latência em milissegundos (limite superior do balde), ou 0 sem amostras
+     */
+    public double getLatencyPercentileMillis(double p) {
+        if (latencySamples == 0) return 0;
+        long target = (long) Math.ceil(latencySamples * Math.max(0, Math.min(100, p)) / 100.0);
+        if (target < 1) target = 1;
+        long acc = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            acc += latencyHistogram[i];
+            if (acc >= target) return (i + 1) * BUCKET_NANOS / 1_000_000.0;
+        }
+        return BUCKETS * BUCKET_NANOS / 1_000_000.0;
+    }
+
+    public long getLatencySamples() {
+        return latencySamples;
+    }
+
+    public long getDroppedEvents() {
+        return queue.getDropped();
+    }
+
+    public void resetLatencyStats() {
+        for (int i = 0; i < BUCKETS; i++) latencyHistogram[i] = 0;
+        latencySamples = 0;
+    }
+}
@@ -0,0 +1,192 @@
+package com.jogos;
+
+import com.jogos.utils.AlphaMask;
+
+/**
+ * Física dos itens em queda: velocidade inicial, gravidade, arrasto, rajadas de vento e
+ * rotação.
+ * <p>
+ * O estado de todos os itens fica em arrays primitivos (structure of arrays) e é integrado
+ * em uma única passada por frame, como no {@link ParticleSystem}. Itens removidos são
+ * trocados com o último corpo vivo. Cada corpo é identificado por um handle opaco escolhido
+ * por quem o criou; a classe não conhece {@link GameItem} e pertence a uma única thread
+ * (a da {@link Simulation}).
+ * <p>
+ * A gravidade é derivada da velocidade terminal, de modo que cada item converge para a
+ * mesma velocidade de queda que o jogo usava antes (a dificuldade não muda).
+ */
+public class ItemPhysics {
+
+    static final float DRAG = 2.2f;                  // 1/s, aproximação da velocidade terminal
+    private static final float ANGULAR_DRAG = 0.15f; // 1/s
+    private static final float WALL_BOUNCE = 0.5f;
+
+    private final int capacity;
+    final int[] handle;
+    final float[] x, y, vx, vy, angle, omega, w, h;
+    final boolean[] magnetic;
+    final AlphaMask[] mask;
+    private int count = 0;
+
+    // vento global: muda de alvo em rajadas e o valor atual persegue o alvo
+    private final StatefulRandom rng = new StatefulRandom();
+    private float wind = 0;
+    private float windTarget = 0;
+    private float gustTimer = 0;
+
+    public ItemPhysics(int capacity) {
+        this.capacity = capacity;
+        handle = new int[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        angle = new float[capacity];
+        omega = new float[capacity];
+        w = new float[capacity];
+        h = new float[capacity];
+        magnetic = new boolean[capacity];
+        mask = new AlphaMask[capacity];
+    }
+
+    public int getCount() { return count; }
+    public boolean isFull() { return count >= capacity; }
+
+    // estado do vento, para salvar e restaurar a partida
+    public float getWind() { return wind; }
+    public float getWindTarget() { return windTarget; }
+    public float getGustTimer() { return gustTimer; }
+    public long getWindRandomState() { return rng.getState(); }
+
+    public void setWindState(float wind, float target, float gust, long randomState) {
+        this.wind = wind;
+        this.windTarget = target;
+        this.gustTimer = gust;
+        rng.setState(randomState);
+    }
+
+    /**
+     * Registra um corpo.
+     *
+     * @param vx0    velocidade horizontal inicial (px/s)
+     * @param vy0    velocidade vertical inicial (px/s)
+     * @param angle0 ângulo inicial (rad)
+     * @param omega0 velocidade angular inicial (rad/s)
+     * @return false se não houver espaço
+     */
+    public boolean add(int id, double px, double py, double width, double height,
+                       double vx0, double vy0, double angle0, double omega0, boolean pulledByMagnet, AlphaMask bodyMask) {
+        if (count >= capacity) return false;
+        int i = count++;
+        handle[i] = id;
+        x[i] = (float) px;
+        y[i] = (float) py;
+        vx[i] = (float) vx0;
+        vy[i] = (float) vy0;
+        angle[i] = (float) angle0;
+        omega[i] = (float) omega0;
+        w[i] = (float) width;
+        h[i] = (float) height;
+        magnetic[i] = pulledByMagnet;
+        mask[i] = bodyMask;
+        return true;
+    }
+
+    /** Remove o corpo no índice {@code i}; o último corpo passa a ocupar esse índice. */
+    public void removeAt(int i) {
+        int last = --count;
+        if (i != last) {
+            handle[i] = handle[last];
+            x[i] = x[last];
+            y[i] = y[last];
+            vx[i] = vx[last];
+            vy[i] = vy[last];
+            angle[i] = angle[last];
+            omega[i] = omega[last];
+            w[i] = w[last];
+            h[i] = h[last];
+            magnetic[i] = magnetic[last];
+            mask[i] = mask[last];
+        }
+        mask[last] = null;
+    }
+
+    public void clear() {
+        for (int i = 0; i < count; i++) mask[i] = null;
+        count = 0;
+        wind = 0;
+        windTarget = 0;
+        gustTimer = 0;
+    }
+
+    /**
+     * Integra todos os corpos em uma passada.
+     *
+     * @param dt           passo em segundos (já escalado pela câmera lenta)
+     * @param terminalVy   velocidade de queda para a qual todos convergem (px/s)
+     * @param worldW       largura lógica, para rebater nas laterais
+     * @param viewW        largura da tela; dá a escala das rajadas de vento (a mesma em qualquer
+     *                     largura de mundo)
+     * @param magnetX      centro X do ímã, ou NaN se o ímã estiver desligado
+     * @param magnetX2     segundo centro (co-op: cada item vai para a lixeira mais próxima), ou NaN
+     * @param magnetMinY   o ímã só atua abaixo desta altura
+     * @param magnetStep   deslocamento máximo do ímã neste passo (px)
+     */
+    public void step(double dt, double terminalVy, double worldW, double viewW,
+                     double magnetX, double magnetX2, double magnetMinY, double magnetStep) {
+        float d = (float) dt;
+        updateWind(d, (float) viewW);
+
+        float terminal = (float) terminalVy;
+        float drag = Math.min(1f, DRAG * d);
+        float spinDrag = 1f - Math.min(1f, ANGULAR_DRAG * d);
+        float windNow = wind;
+        float right = (float) worldW;
+        boolean magnet = !Double.isNaN(magnetX);
+        float mx = (float) magnetX;
+        boolean magnet2 = magnet && !Double.isNaN(magnetX2);
+        float mx2 = (float) magnetX2;
+        float my = (float) magnetMinY;
+        float ms = (float) magnetStep;
+
+        for (int i = 0; i < count; i++) {
+            // gravidade + arrasto linear: vx persegue o vento, vy a velocidade terminal
+            float nvx = vx[i] + (windNow - vx[i]) * drag;
+            float nvy = vy[i] + (terminal - vy[i]) * drag;
+            float nx = x[i] + nvx * d;
+            float ny = y[i] + nvy * d;
+
+            if (nx < 0) {
+                nx = 0;
+                nvx = -nvx * WALL_BOUNCE;
+            } else if (nx + w[i] > right) {
+                nx = right - w[i];
+                nvx = -nvx * WALL_BOUNCE;
+            }
+
+            if (magnet && magnetic[i] && ny > my) {
+                float cx = nx + w[i] * 0.5f;
+                float dx = mx - cx;
+                if (magnet2 && Math.abs(mx2 - cx) < Math.abs(dx)) dx = mx2 - cx;
+                nx += Math.max(-ms, Math.min(ms, dx));
+            }
+
+            x[i] = nx;
+            y[i] = ny;
+            vx[i] = nvx;
+            vy[i] = nvy;
+            omega[i] *= spinDrag;
+            angle[i] += omega[i] * d;
+        }
+    }
+
+    private void updateWind(float d, float viewW) {
+        gustTimer -= d;
+        if (gustTimer <= 0) {
+            gustTimer = 1.5f + rng.nextFloat() * 2.5f;
+            // na maior parte do tempo calmo; às vezes uma rajada para um dos lados
+            windTarget = rng.nextFloat() < 0.35f ? (rng.nextFloat() * 2 - 1) * viewW * 0.12f : 0f;
+        }
+        wind += (windTarget - wind) * Math.min(1f, 1.5f * d);
+    }
+}
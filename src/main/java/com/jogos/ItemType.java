@@ -1,5 +1,11 @@
 package com.jogos;
 
 public enum ItemType {
-    METAL, BATTERY, PLASTIC, REUSE
-}
\ No newline at end of file
+    METAL, BATTERY, PLASTIC, REUSE,
+    // power-ups
+    MAGNET, SLOW_MOTION, SHIELD, WIDE_BIN;
+
+    public boolean isPowerUp() {
+        return ordinal() >= MAGNET.ordinal();
+    }
+}
@@ -0,0 +1,229 @@
+package com.jogos;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor local de ranking compartilhado entre os quiosques.
+ * <p>
+ * Iniciado pelo mesmo jar com {@code --leaderboard-server [porta] [arquivo]}.
+ * API HTTP (texto simples, uma entrada por linha no formato {@code pontos<TAB>nome}):
+ * <ul>
+ *   <li>{@code POST /scores?name=quiosque1&score=42} registra uma pontuação (204)</li>
+ *   <li>{@code GET /scores/top?n=10} devolve as n melhores</li>
+ * </ul>
+ * Cada requisição roda em uma virtual thread quando a JVM oferece (Java 21+); em JVMs
+ * mais antigas cai para um pool de threads comum. O ranking fica em um
+ * ConcurrentSkipListSet e o arquivo é regravado em lote, no máximo uma vez por segundo.
+ */
+public final class LeaderboardServer {
+
+    public static final int DEFAULT_PORT = 8765;
+    private static final int MAX_ENTRIES = 1000;
+    private static final int MAX_TOP = 100;
+    private static final long FLUSH_INTERVAL_MS = 1000;
+
+    private record Entry(int score, String name, long seq) { }
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingInt(Entry::score).reversed()
+            .thenComparingLong(Entry::seq);
+
+    private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>(RANKING);
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+
+    private final Path file;
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final ScheduledExecutorService flusher;
+
+    public LeaderboardServer(int port, Path file) throws IOException {
+        this.file = file;
+        loadFile();
+
+        server = HttpServer.create(new InetSocketAddress(port), 512);
+        requestExecutor = newRequestExecutor();
+        server.setExecutor(requestExecutor);
+        server.createContext("/scores/top", this::handleTop);
+        server.createContext("/scores", this::handleSubmit);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "leaderboard-flush");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Usa Executors.newVirtualThreadPerTaskExecutor() se existir (Java 21+).
+     * O projeto compila para Java 17, por isso a chamada é feita por reflexão.
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "leaderboard-http");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public void start() {
+        server.start();
+        flusher.scheduleWithFixedDelay(this::flushIfDirty, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        System.out.println("LeaderboardServer: ouvindo em http://localhost:" + getPort());
+    }
+
+    public void stop() {
+        server.stop(0);
+        requestExecutor.shutdown();
+        flusher.shutdown();
+        flushIfDirty();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // === Ranking ===
+
+    public void submit(String name, int score) {
+        ranking.add(new Entry(score, name, sequence.incrementAndGet()));
+        // mantém só as MAX_ENTRIES melhores; o contador evita o size() O(n) do skip list
+        if (size.incrementAndGet() > MAX_ENTRIES) {
+            if (ranking.pollLast() != null) size.decrementAndGet();
+        }
+        dirty.set(true);
+    }
+
+    public List<String> top(int n) {
+        List<String> out = new ArrayList<>(Math.min(n, MAX_TOP));
+        for (Entry e : ranking) {
+            if (out.size() >= n) break;
+            out.add(e.score() + "\t" + e.name());
+        }
+        return out;
+    }
+
+    // === HTTP ===
+
+    private void handleSubmit(HttpExchange ex) throws IOException {
+        try (ex) {
+            // o corpo (vazio) precisa ser lido até o fim, senão o HttpServer fecha a conexão
+            // em vez de devolvê-la ao keep-alive e o próximo envio do cliente falha
+            ex.getRequestBody().readAllBytes();
+            if (!"POST".equals(ex.getRequestMethod())) {
+                ex.sendResponseHeaders(405, -1);
+                return;
+            }
+            Map<String, String> q = parseQuery(ex.getRequestURI().getRawQuery());
+            String name = q.getOrDefault("name", "anon");
+            int score;
+            try {
+                score = Integer.parseInt(q.getOrDefault("score", ""));
+            } catch (NumberFormatException e) {
+                ex.sendResponseHeaders(400, -1);
+                return;
+            }
+            submit(name.replace('\t', ' ').replace('\n', ' '), score);
+            ex.sendResponseHeaders(204, -1);
+        }
+    }
+
+    private void handleTop(HttpExchange ex) throws IOException {
+        try (ex) {
+            if (!"GET".equals(ex.getRequestMethod())) {
+                ex.sendResponseHeaders(405, -1);
+                return;
+            }
+            int n = 10;
+            try {
+                n = Integer.parseInt(parseQuery(ex.getRequestURI().getRawQuery()).getOrDefault("n", "10"));
+            } catch (NumberFormatException ignored) { }
+            n = Math.max(1, Math.min(MAX_TOP, n));
+
+            byte[] body = (String.join("\n", top(n)) + "\n").getBytes(StandardCharsets.UTF_8);
+            ex.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            ex.sendResponseHeaders(200, body.length);
+            try (OutputStream os = ex.getResponseBody()) {
+                os.write(body);
+            }
+        }
+    }
+
+    private static Map<String, String> parseQuery(String raw) {
+        Map<String, String> map = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return map;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            map.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return map;
+    }
+
+    // === Persistência em lote ===
+
+    private void loadFile() {
+        try {
+            if (!Files.exists(file)) return;
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                int tab = line.indexOf('\t');
+                if (tab <= 0) continue;
+                try {
+                    submit(line.substring(tab + 1), Integer.parseInt(line.substring(0, tab)));
+                } catch (NumberFormatException ignored) { }
+            }
+            dirty.set(false);
+        } catch (IOException e) {
+            System.err.println("LeaderboardServer: erro lendo " + file + " -> " + e.getMessage());
+        }
+    }
+
+    private void flushIfDirty() {
+        if (!dirty.getAndSet(false)) return;
+        try {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(tmp, top(MAX_ENTRIES), StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty.set(true); // tenta de novo no próximo ciclo
+            System.err.println("LeaderboardServer: erro gravando " + file + " -> " + e.getMessage());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Path file = Path.of(args.length > 1 ? args[1] : "leaderboard.txt");
+        LeaderboardServer s = new LeaderboardServer(port, file);
+        Runtime.getRuntime().addShutdownHook(new Thread(s::stop));
+        s.start();
+    }
+}
@@ -0,0 +1,203 @@
+package com.jogos;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Scale;
+
+import java.util.Random;
+
+/**
+ * Sistema de partículas com capacidade fixa.
+ * <p>
+ * O estado fica em arrays primitivos pré-alocados (structure of arrays) e é atualizado
+ * em uma única passada por frame; as partículas mortas são removidas trocando com a
+ * última viva. Tudo é desenhado em um único Canvas, sem nós na cena, e nenhum objeto
+ * é alocado depois da construção.
+ */
+public class ParticleSystem {
+
+    // === Paletas ===
+    public static final int PALETTE_SPARKLE = 0;
+    public static final int PALETTE_DEBRIS = 1;
+
+    private static final int ALPHA_LEVELS = 16;
+    private static final Color[][] PALETTES = {
+            { Color.YELLOW, Color.GOLD, Color.WHITE, Color.LIGHTGREEN },
+            { Color.ORANGERED, Color.ORANGE, Color.DIMGRAY, Color.DARKSLATEGRAY }
+    };
+    // cores já com alpha quantizado: [paleta][cor][nível de alpha]
+    private static final Color[][][] SHADES = new Color[PALETTES.length][][];
+
+    static {
+        for (int p = 0; p < PALETTES.length; p++) {
+            SHADES[p] = new Color[PALETTES[p].length][ALPHA_LEVELS];
+            for (int c = 0; c < PALETTES[p].length; c++) {
+                for (int a = 0; a < ALPHA_LEVELS; a++) {
+                    SHADES[p][c][a] = PALETTES[p][c].deriveColor(0, 1, 1, (a + 1) / (double) ALPHA_LEVELS);
+                }
+            }
+        }
+    }
+
+    private final int capacity;
+    private final float[] x, y, vx, vy, gravity, life, maxLife, size;
+    private final byte[] palette, shade;
+    private int count = 0;
+    private boolean drewLastFrame = false;
+
+    private final Canvas canvas;
+    private final GraphicsContext gc;
+    private final Scale canvasScale = new Scale(1, 1, 0, 0);
+    private double width;
+    private double height;
+    private double renderScale = 1.0;
+    private double originX = 0; // X do mundo no canto esquerdo do canvas (câmera)
+    private final Random rng = new Random();
+
+    public ParticleSystem(int capacity, double width, double height) {
+        this.capacity = capacity;
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        gravity = new float[capacity];
+        life = new float[capacity];
+        maxLife = new float[capacity];
+        size = new float[capacity];
+        palette = new byte[capacity];
+        shade = new byte[capacity];
+
+        this.width = width;
+        this.height = height;
+        canvas = new Canvas(width, height);
+        canvas.setMouseTransparent(true);
+        canvas.getTransforms().add(canvasScale);
+        gc = canvas.getGraphicsContext2D();
+    }
+
+    public Canvas getCanvas() { return canvas; }
+    public int getCount() { return count; }
+
+    public void resize(double width, double height) {
+        this.width = width;
+        this.height = height;
+        applyCanvasSize();
+    }
+
+    /**
+     * Resolução interna do canvas em relação ao tamanho lógico (1.0 = cheia, 0.5 = metade).
+     * As partículas continuam em coordenadas lógicas; o canvas é ampliado de volta na cena.
+     */
+    public void setRenderScale(double scale) {
+        renderScale = Math.max(0.1, Math.min(1.0, scale));
+        applyCanvasSize();
+    }
+
+    private void applyCanvasSize() {
+        canvas.setWidth(Math.ceil(width * renderScale));
+        canvas.setHeight(Math.ceil(height * renderScale));
+        canvasScale.setX(1.0 / renderScale);
+        canvasScale.setY(1.0 / renderScale);
+        gc.setTransform(renderScale, 0, 0, renderScale, 0, 0);
+        drewLastFrame = true; // força limpar na próxima renderização
+    }
+
+    /**
+     * Brilhos leves que sobem e se espalham (item coletado).
+     */
+    public void emitSparkles(double cx, double cy, int n) {
+        for (int i = 0; i < n; i++) {
+            double angle = rng.nextDouble() * Math.PI * 2;
+            double speed = 60 + rng.nextDouble() * 160;
+            spawn(cx, cy, Math.cos(angle) * speed, Math.sin(angle) * speed - 120,
+                    180, 0.4 + rng.nextDouble() * 0.5, 2 + rng.nextDouble() * 3, PALETTE_SPARKLE);
+        }
+    }
+
+    /**
+     * Fragmentos pesados e rápidos (bomba explodindo).
+     */
+    public void emitDebris(double cx, double cy, int n) {
+        for (int i = 0; i < n; i++) {
+            double angle = rng.nextDouble() * Math.PI * 2;
+            double speed = 150 + rng.nextDouble() * 420;
+            spawn(cx, cy, Math.cos(angle) * speed, Math.sin(angle) * speed - 200,
+                    900, 0.6 + rng.nextDouble() * 0.8, 3 + rng.nextDouble() * 5, PALETTE_DEBRIS);
+        }
+    }
+
+    private void spawn(double px, double py, double pvx, double pvy, double g,
+                       double lifeSeconds, double s, int pal) {
+        if (count >= capacity) return; // cheio: descarta em vez de alocar
+        int i = count++;
+        x[i] = (float) px;
+        y[i] = (float) py;
+        vx[i] = (float) pvx;
+        vy[i] = (float) pvy;
+        gravity[i] = (float) g;
+        life[i] = (float) lifeSeconds;
+        maxLife[i] = (float) lifeSeconds;
+        size[i] = (float) s;
+        palette[i] = (byte) pal;
+        shade[i] = (byte) rng.nextInt(PALETTES[pal].length);
+    }
+
+    /**
+     * Integra todas as partículas em uma passada e remove as que expiraram.
+     */
+    public void update(double deltaSeconds) {
+        float dt = (float) deltaSeconds;
+        int i = 0;
+        while (i < count) {
+            float l = life[i] - dt;
+            if (l <= 0) {
+                int last = --count;
+                x[i] = x[last];
+                y[i] = y[last];
+                vx[i] = vx[last];
+                vy[i] = vy[last];
+                gravity[i] = gravity[last];
+                life[i] = life[last];
+                maxLife[i] = maxLife[last];
+                size[i] = size[last];
+                palette[i] = palette[last];
+                shade[i] = shade[last];
+                continue;
+            }
+            life[i] = l;
+            vy[i] += gravity[i] * dt;
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+            i++;
+        }
+    }
+
+    /** Posição da câmera no mundo largo; as partículas continuam em coordenadas do mundo. */
+    public void setViewOrigin(double x) {
+        originX = x;
+    }
+
+    public void render() {
+        if (count == 0 && !drewLastFrame) return;
+        gc.clearRect(0, 0, width, height);
+        float ox = (float) originX;
+        for (int i = 0; i < count; i++) {
+            int a = (int) (life[i] / maxLife[i] * (ALPHA_LEVELS - 1));
+            if (a < 0) a = 0;
+            gc.setFill(SHADES[palette[i]][shade[i]][a]);
+            float s = size[i];
+            gc.fillRect(x[i] - ox - s * 0.5f, y[i] - s * 0.5f, s, s);
+        }
+        drewLastFrame = count > 0;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    /** Semeia as direções e cores das partículas (mesma partida, mesmas partículas). */
+    public void setSeed(long seed) {
+        rng.setSeed(seed);
+    }
+}
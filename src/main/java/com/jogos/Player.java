@@ -0,0 +1,94 @@
+package com.jogos;
+
+import javafx.scene.control.Label;
+import javafx.scene.text.Font;
+
+/**
+ * Estado de um jogador na partida: lixeira, placar, vidas, combo e os textos dele no HUD.
+ * No co-op local são dois; itens, simulação, sprites e power-ups são compartilhados.
+ */
+public class Player {
+
+    public static final int START_LIVES = 3;
+
+    public final int index;
+    public final Collector collector;
+    public int score = 0;
+    public int lives = START_LIVES;
+    public int combo = 0;
+    public long comboTimer = -1;
+
+    private final Label scoreLabel = new Label();
+    private final Label livesLabel = new Label();
+    private final Label comboLabel = new Label();
+    private String prefix = "";
+    // último valor mostrado em cada texto do HUD
+    private int hudScore = Integer.MIN_VALUE;
+    private int hudLives = Integer.MIN_VALUE;
+    private int hudCombo = Integer.MIN_VALUE;
+
+    public Player(int index, Collector collector) {
+        this.index = index;
+        this.collector = collector;
+        scoreLabel.setFont(Font.font(20));
+        livesLabel.setFont(Font.font(20));
+        comboLabel.setFont(Font.font(20));
+        updateHud();
+    }
+
+    public void reset() {
+        score = 0;
+        lives = START_LIVES;
+        combo = 0;
+        comboTimer = -1;
+    }
+
+    public boolean isOut() {
+        return lives <= 0;
+    }
+
+    /** Multiplicador atual: +1 a cada 5 coletas seguidas, até x5. */
+    public int comboMultiplier() {
+        return 1 + Math.min(4, combo / 5);
+    }
+
+    /** Prefixo dos textos ("P1 " no co-op, vazio sozinho). */
+    public void setHudPrefix(String p) {
+        if (p.equals(prefix)) return;
+        prefix = p;
+        hudScore = hudLives = hudCombo = Integer.MIN_VALUE;
+        updateHud();
+    }
+
+    /** Atualiza só os textos cujo valor mudou (nenhuma String é criada sem mudança). */
+    public void updateHud() {
+        if (score != hudScore) {
+            hudScore = score;
+            scoreLabel.setText(prefix + "Score: " + score);
+        }
+        if (lives != hudLives) {
+            hudLives = lives;
+            livesLabel.setText(prefix + "Lives: " + lives);
+        }
+        int multiplier = comboMultiplier();
+        if (multiplier != hudCombo) {
+            hudCombo = multiplier;
+            comboLabel.setText(prefix + "Combo x" + multiplier);
+        }
+    }
+
+    public void setHudVisible(boolean visible) {
+        show(scoreLabel, visible);
+        show(livesLabel, visible);
+        show(comboLabel, visible);
+    }
+
+    private static void show(Label label, boolean visible) {
+        label.setVisible(visible);
+        label.setManaged(visible);
+    }
+
+    public Label getScoreLabel() { return scoreLabel; }
+    public Label getLivesLabel() { return livesLabel; }
+    public Label getComboLabel() { return comboLabel; }
+}
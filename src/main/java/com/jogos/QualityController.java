@@ -0,0 +1,113 @@
+package com.jogos;
+
+/**
+ * Controle adaptativo de qualidade guiado pelo orçamento de tempo por frame.
+ * <p>
+ * A cada frame recebe duas medidas, cada uma com sua média móvel exponencial: o maior
+ * intervalo entre pulsos do JavaFX desde o frame anterior e quanto tempo o loop trabalhou
+ * no handle(). O intervalo entre pulsos inclui o render da cena (o que os níveis cortam),
+ * mas não a espera do limite de FPS, porque os pulsos ignorados pelo limite também contam.
+ * Desce um nível quando os pulsos passam do orçamento por tempo suficiente; sobe só com
+ * folga no tempo de trabalho e pulsos em dia, por bem mais tempo. Os limiares e tempos
+ * diferentes para descer e subir formam a histerese que evita ficar alternando entre dois
+ * níveis. Se os pulsos atrasaram com o trabalho dentro do orçamento, quem pesa é o render,
+ * que o tempo de trabalho não mostra: o nível abandonado não volta até o orçamento mudar.
+ */
+public class QualityController {
+
+    public enum Tier {
+        HIGH,               // tudo ligado
+        NO_SMOOTHING,       // ImageViews sem suavização
+        STATIC_BACKGROUND,  // fundo parado
+        LOW_RESOLUTION      // fundo e partículas renderizados em resolução menor
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        void onTierChanged(Tier tier);
+    }
+
+    private static final Tier[] TIERS = Tier.values();
+
+    private static final double DOWN_THRESHOLD = 1.15; // média acima de 115% do orçamento
+    private static final double UP_THRESHOLD = 0.75;   // média abaixo de 75% do orçamento
+    private static final long DOWN_AFTER_NANOS = 1_000_000_000L;
+    private static final long UP_AFTER_NANOS = 5_000_000_000L;
+    private static final double SMOOTHING = 0.1;
+
+    private final Listener listener;
+    private long budgetNanos;
+    private double averageNanos = 0;
+    private double averagePulseNanos = 0;
+    private long overBudgetNanos = 0;
+    private long underBudgetNanos = 0;
+    private Tier tier = Tier.HIGH;
+    private int ceiling = 0; // nível mais alto permitido: acima dele o render não coube
+
+    public QualityController(long budgetNanos, Listener listener) {
+        this.budgetNanos = budgetNanos;
+        this.listener = listener;
+    }
+
+    public void setBudgetNanos(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+        ceiling = 0;
+        resetMeasurements();
+    }
+
+    public Tier getTier() { return tier; }
+
+    public double getAverageFrameMillis() { return averageNanos / 1_000_000.0; }
+
+    public double getAveragePulseMillis() { return averagePulseNanos / 1_000_000.0; }
+
+    /** Descarta o histórico (ex.: depois de uma pausa, o primeiro frame não conta). */
+    public void resetMeasurements() {
+        averageNanos = 0;
+        averagePulseNanos = 0;
+        overBudgetNanos = 0;
+        underBudgetNanos = 0;
+    }
+
+    /**
+     * @param workNanos     tempo gasto no handle() do frame (entrada, simulação, partículas);
+     *                      não inclui o render da cena, que o JavaFX faz depois
+     * @param pulseNanos    maior intervalo entre dois pulsos seguidos do JavaFX desde o frame
+     *                      anterior, contando os ignorados pelo limite de FPS (0 = sem medida)
+     * @param intervalNanos tempo real desde o frame anterior, para contar há quanto tempo a
+     *                      média está acima ou abaixo do orçamento
+     */
+    public void onFrame(long workNanos, long pulseNanos, long intervalNanos) {
+        if (workNanos <= 0 || intervalNanos <= 0) return;
+        averageNanos = averageNanos == 0 ? workNanos : averageNanos + (workNanos - averageNanos) * SMOOTHING;
+        if (pulseNanos > 0) {
+            averagePulseNanos = averagePulseNanos == 0 ? pulseNanos
+                    : averagePulseNanos + (pulseNanos - averagePulseNanos) * SMOOTHING;
+        }
+
+        if (averagePulseNanos > budgetNanos * DOWN_THRESHOLD) {
+            overBudgetNanos += intervalNanos;
+            underBudgetNanos = 0;
+            if (overBudgetNanos >= DOWN_AFTER_NANOS && tier.ordinal() < TIERS.length - 1) {
+                if (averageNanos <= budgetNanos) ceiling = tier.ordinal() + 1; // render pesado
+                changeTier(TIERS[tier.ordinal() + 1]);
+            }
+        } else if (averageNanos < budgetNanos * UP_THRESHOLD) {
+            underBudgetNanos += intervalNanos;
+            overBudgetNanos = 0;
+            if (underBudgetNanos >= UP_AFTER_NANOS && tier.ordinal() > ceiling) {
+                changeTier(TIERS[tier.ordinal() - 1]);
+            }
+        } else {
+            overBudgetNanos = 0;
+            underBudgetNanos = 0;
+        }
+    }
+
+    private void changeTier(Tier next) {
+        tier = next;
+        overBudgetNanos = 0;
+        underBudgetNanos = 0;
+        listener.onTierChanged(next);
+    }
+}
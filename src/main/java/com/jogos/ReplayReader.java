@@ -0,0 +1,160 @@
+package com.jogos;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Leitura de uma partida gravada pelo {@link ReplayRecorder} (formato descrito lá).
+ * <p>
+ * O arquivo inteiro é lido e validado de uma vez; depois os registros são percorridos em
+ * ordem com {@link #next}, e os campos do registro atual ficam nos getters. Frames e passos
+ * saem relativos ao início da partida: o passo 0 é o do primeiro frame aplicado, e um
+ * snapshot lido antes dele (da partida anterior) sai negativo.
+ */
+public final class ReplayReader {
+
+    public static final int INPUT = ReplayRecorder.INPUT;
+    public static final int FRAME = ReplayRecorder.FRAME;
+    public static final int APPLIED = ReplayRecorder.APPLIED;
+    public static final int RESTART = ReplayRecorder.RESTART;
+
+    private final ByteBuffer records;
+    private final long seed;
+    private final double screenW;
+    private final double screenH;
+    private final double worldW;
+    private final double collectorX;
+    private final ByteBuffer session;
+    private final long startTime;
+    private final long stepBase;
+
+    // registro atual
+    private long time;
+    private long step;
+    private long frame;
+    private int action;
+    private boolean pressed;
+
+    private ReplayReader(ByteBuffer records, long seed, double screenW, double screenH, double worldW,
+                         double collectorX, ByteBuffer session, long startTime, long stepBase) {
+        this.records = records;
+        this.seed = seed;
+        this.screenW = screenW;
+        this.screenH = screenH;
+        this.worldW = worldW;
+        this.collectorX = collectorX;
+        this.session = session;
+        this.startTime = startTime;
+        this.stepBase = stepBase;
+    }
+
+    /** @return a gravação, ou null se o arquivo não existir ou não for uma gravação válida */
+    public static ReplayReader load(Path file) {
+        if (!Files.isRegularFile(file)) return null;
+        try {
+            ByteBuffer b = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (b.getInt() != ReplayRecorder.MAGIC || b.getShort() != ReplayRecorder.VERSION) {
+                System.err.println("ReplayReader: " + file + " não é uma gravação compatível");
+                return null;
+            }
+            long seed = b.getLong();
+            double screenW = b.getDouble();
+            double screenH = b.getDouble();
+            double worldW = b.getDouble();
+            double collectorX = b.getDouble();
+            int sessionLength = b.getInt();
+            ByteBuffer session = null;
+            if (sessionLength >= 0) {
+                session = b.slice(b.position(), sessionLength);
+                b.position(b.position() + sessionLength);
+            }
+
+            // valida os registros e acha o instante do primeiro frame e o passo em que a partida começou
+            ByteBuffer records = b.slice();
+            long startTime = Long.MIN_VALUE;
+            long stepBase = -1;
+            ByteBuffer scan = records.duplicate();
+            while (scan.hasRemaining()) {
+                byte kind = scan.get();
+                switch (kind) {
+                    case ReplayRecorder.INPUT -> scan.position(scan.position() + 10);
+                    case ReplayRecorder.FRAME -> {
+                        long now = scan.getLong();
+                        scan.getLong();
+                        if (startTime == Long.MIN_VALUE) startTime = now;
+                    }
+                    case ReplayRecorder.APPLIED -> {
+                        scan.getLong();
+                        long step = scan.getLong();
+                        if (stepBase < 0) stepBase = step;
+                    }
+                    case ReplayRecorder.RESTART -> { }
+                    default -> throw new IOException("registro desconhecido " + kind);
+                }
+            }
+            if (startTime == Long.MIN_VALUE || stepBase < 0) throw new IOException("gravação sem frames");
+            return new ReplayReader(records, seed, screenW, screenH, worldW, collectorX, session, startTime, stepBase);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            System.err.println("ReplayReader: erro lendo " + file + " -> " + e);
+            return null;
+        }
+    }
+
+    public long getSeed() { return seed; }
+    public double getScreenWidth() { return screenW; }
+    public double getScreenHeight() { return screenH; }
+    public double getWorldWidth() { return worldW; }
+    public double getCollectorX() { return collectorX; }
+    /** Corpo do snapshot de sessão de onde a partida partiu, ou null (partida nova). */
+    public ByteBuffer getSession() { return session == null ? null : session.duplicate(); }
+    /** Instante (nanoTime da gravação) do primeiro frame. */
+    public long getStartTime() { return startTime; }
+
+    public boolean hasNext() {
+        return records.hasRemaining();
+    }
+
+    /** Tipo do próximo registro, sem avançar; só válido se {@link #hasNext()}. */
+    public int peekKind() {
+        return records.get(records.position());
+    }
+
+    /** Instante do próximo registro se ele for um FRAME, sem avançar. */
+    public long peekFrameTime() {
+        return records.getLong(records.position() + 1);
+    }
+
+    /** Avança para o próximo registro e devolve o tipo dele. */
+    public int next() {
+        int kind = records.get();
+        switch (kind) {
+            case INPUT -> {
+                time = records.getLong();
+                action = records.get();
+                pressed = records.get() != 0;
+            }
+            case FRAME -> {
+                time = records.getLong();
+                long s = records.getLong();
+                step = s < 0 ? -1 : s - stepBase;
+            }
+            case APPLIED -> {
+                frame = records.getLong();
+                step = records.getLong() - stepBase;
+            }
+            default -> { }
+        }
+        return kind;
+    }
+
+    /** Carimbo (INPUT) ou instante do pulso (FRAME). */
+    public long getTime() { return time; }
+    /** Passo do snapshot (FRAME, negativo = nenhum desta partida) ou passo em que o frame entrou (APPLIED). */
+    public long getStep() { return step; }
+    public long getFrame() { return frame; }
+    public int getAction() { return action; }
+    public boolean isPressed() { return pressed; }
+}
@@ -0,0 +1,148 @@
+package com.jogos;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Gravação de uma partida para ser refeita igual (exportação de vídeo).
+ * <p>
+ * Guarda o ponto de partida (semente de todos os geradores, tamanho da tela e do mundo,
+ * posição da lixeira e, se a partida veio do "Continuar", o corpo do snapshot de sessão) e,
+ * em ordem:
+ * as transições de tecla com o carimbo original, no frame em que foram aplicadas; cada
+ * pulso do loop com o instante e o passo do snapshot que ele leu; o passo em que a
+ * simulação aplicou cada frame do FX; e os reinícios do loop (pausa). Com isso o
+ * {@link ReplayReader} refaz a partida passo a passo, sem depender de como as threads se
+ * alternaram na gravação. Formato:
+ * <pre>
+ *   int    MAGIC ("RMRP")
+ *   short  VERSION
+ *   long   semente, double largura e altura da tela, double largura do mundo, double x da lixeira
+ *   int    tamanho do corpo de sessão (-1 = partida nova) + corpo
+ *   ...    registros: byte tipo + campos (frames contados a partir do início da gravação;
+ *          passos como a simulação contou, o primeiro APPLIED marca o início da partida)
+ *            INPUT   long carimbo, byte ação, byte pressionada
+ *            FRAME   long instante, long passo do snapshot (-1 = não leu)
+ *            APPLIED long frame, long passo
+ *            RESTART
+ * </pre>
+ * Desligada por padrão; liga com {@code -Dreciclamack.replay=arquivo}. Só partidas de um
+ * jogador são gravadas; o arquivo é gravado em segundo plano quando a partida acaba. Os
+ * registros vão para um buffer que dobra quando enche (poucas vezes por partida).
+ */
+public final class ReplayRecorder {
+
+    static final int MAGIC = 0x524D5250;
+    static final short VERSION = 1;
+
+    static final byte INPUT = 0;
+    static final byte FRAME = 1;
+    static final byte APPLIED = 2;
+    static final byte RESTART = 3;
+
+    private static final int INITIAL_BYTES = 256 * 1024;
+
+    private final Path file;
+    private ByteBuffer buf = ByteBuffer.allocate(INITIAL_BYTES);
+    private boolean recording = false;
+    private long frameBase;
+
+    private ReplayRecorder(Path file) {
+        this.file = file;
+    }
+
+    /** Cria o gravador conforme a propriedade de sistema; devolve null se estiver desligado. */
+    public static ReplayRecorder fromSystemProperties() {
+        String value = System.getProperty("reciclamack.replay");
+        if (value == null || value.isBlank()) return null;
+        return new ReplayRecorder(Path.of(value.trim()));
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Começa a gravar uma partida já preparada (resetGame ou sessão restaurada), antes do
+     * primeiro frame.
+     * @param session   corpo do snapshot de sessão de onde a partida partiu, ou null
+     * @param frameBase frames já confirmados pelo FX neste momento
+     */
+    public void begin(long seed, double screenW, double screenH, double worldW, double collectorX,
+                      ByteBuffer session, long frameBase) {
+        this.frameBase = frameBase;
+        buf.clear();
+        buf.putInt(MAGIC).putShort(VERSION);
+        buf.putLong(seed).putDouble(screenW).putDouble(screenH).putDouble(worldW).putDouble(collectorX);
+        if (session == null) {
+            buf.putInt(-1);
+        } else {
+            ByteBuffer body = session.duplicate();
+            ensure(4 + body.remaining());
+            buf.putInt(body.remaining()).put(body);
+        }
+        recording = true;
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    public void input(long stamp, int action, boolean down) {
+        if (!recording) return;
+        ensure(11);
+        buf.put(INPUT).putLong(stamp).put((byte) action).put((byte) (down ? 1 : 0));
+    }
+
+    /** @param snapshotStep passo do snapshot lido no frame, ou -1 se o frame não leu nenhum */
+    public void frame(long now, long snapshotStep) {
+        if (!recording) return;
+        ensure(17);
+        buf.put(FRAME).putLong(now).putLong(Math.max(-1, snapshotStep));
+    }
+
+    /** A simulação aplicou o frame {@code frame} depois do passo {@code step}. */
+    public void applied(long frame, long step) {
+        if (!recording) return;
+        ensure(17);
+        buf.put(APPLIED).putLong(frame - frameBase).putLong(step);
+    }
+
+    /** O loop recomeçou (volta da pausa, fim de jogo): o próximo frame só marca o relógio. */
+    public void restart() {
+        if (!recording) return;
+        ensure(1);
+        buf.put(RESTART);
+    }
+
+    /** Para de gravar e grava o arquivo em segundo plano (temporário + move atômico). */
+    public void finish() {
+        if (!recording) return;
+        recording = false;
+        byte[] data = Arrays.copyOf(buf.array(), buf.position());
+        Thread t = new Thread(() -> write(data), "replay-writer");
+        t.start(); // não é daemon: fechar o jogo logo depois não perde a gravação
+    }
+
+    private void write(byte[] data) {
+        try {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(tmp, data);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("ReplayRecorder: erro gravando " + file + " -> " + e.getMessage());
+        }
+    }
+
+    private void ensure(int bytes) {
+        if (buf.remaining() >= bytes) return;
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + bytes));
+        buf.flip();
+        bigger.put(buf);
+        buf = bigger;
+    }
+}
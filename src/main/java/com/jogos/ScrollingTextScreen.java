@@ -0,0 +1,107 @@
+package com.jogos;
+
+import javafx.animation.AnimationTimer;
+import javafx.event.EventHandler;
+import javafx.scene.CacheHint;
+import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+/**
+ * Tela de texto subindo sobre fundo preto (intro e créditos).
+ * <p>
+ * O texto vira bitmap uma vez (cache do nó com {@link CacheHint#SPEED}: subir só translada a
+ * textura, sem desenhar as letras de novo) e a posição vem do tempo decorrido desde o início,
+ * então a velocidade não depende da cadência dos pulsos. Ao chegar ao fim o texto fica parado
+ * {@value #HOLD_SECONDS} s. Enter, espaço, Esc ou um clique pulam direto para o fim.
+ */
+public class ScrollingTextScreen {
+
+    private static final double SPEED_PX_PER_SECOND = 88; // os antigos 1,5 px a cada 17 ms
+    private static final double HOLD_SECONDS = 3;
+
+    private final StackPane rootStack; // StackPane principal do jogo
+    private final String text;
+    private final double startFraction;
+    private final boolean scrollOffScreen;
+    private final Runnable onFinish;
+
+    private StackPane overlay;
+    private AnimationTimer timer;
+    private EventHandler<KeyEvent> skipKeys;
+    private boolean finished = false;
+
+    /**
+     * @param startFraction   posição inicial do texto, em alturas de tela abaixo do centro
+     * @param scrollOffScreen true = sobe até sair da tela; false = para perto do topo
+     */
+    protected ScrollingTextScreen(StackPane rootStack, String text, double startFraction,
+                                  boolean scrollOffScreen, Runnable onFinish) {
+        this.rootStack = rootStack;
+        this.text = text;
+        this.startFraction = startFraction;
+        this.scrollOffScreen = scrollOffScreen;
+        this.onFinish = onFinish;
+    }
+
+    public void show() {
+        overlay = new StackPane();
+        overlay.setStyle("-fx-background-color: black;");
+
+        double width = rootStack.getWidth();
+        double height = rootStack.getHeight();
+
+        Text textNode = new Text(text);
+        textNode.setFill(Color.YELLOW);
+        textNode.setFont(Font.font("Arial", 28));
+        textNode.setWrappingWidth(width * 0.8);
+        textNode.setCache(true);
+        textNode.setCacheHint(CacheHint.SPEED);
+
+        double startY = height * startFraction;
+        double stopY = scrollOffScreen ? -textNode.getLayoutBounds().getHeight() : 20;
+        double scrollSeconds = Math.max(0, startY - stopY) / SPEED_PX_PER_SECOND;
+        textNode.setTranslateY(startY);
+
+        overlay.getChildren().add(textNode);
+        overlay.setOnMouseClicked(e -> finish());
+        rootStack.getChildren().add(overlay);
+
+        Scene scene = rootStack.getScene();
+        skipKeys = e -> {
+            KeyCode code = e.getCode();
+            if (code == KeyCode.ENTER || code == KeyCode.SPACE || code == KeyCode.ESCAPE) {
+                e.consume(); // não chega aos atalhos do menu
+                finish();
+            }
+        };
+        if (scene != null) scene.addEventFilter(KeyEvent.KEY_PRESSED, skipKeys);
+
+        timer = new AnimationTimer() {
+            private long start = -1;
+
+            @Override
+            public void handle(long now) {
+                if (start < 0) start = now;
+                double t = (now - start) / 1_000_000_000.0;
+                textNode.setTranslateY(startY - SPEED_PX_PER_SECOND * Math.min(t, scrollSeconds));
+                if (t >= scrollSeconds + HOLD_SECONDS) finish();
+            }
+        };
+        timer.start();
+    }
+
+    private void finish() {
+        if (finished) return;
+        finished = true;
+        timer.stop();
+        Scene scene = rootStack.getScene();
+        if (scene != null) scene.removeEventFilter(KeyEvent.KEY_PRESSED, skipKeys);
+        rootStack.getChildren().remove(overlay);
+        onFinish.run();
+    }
+}
@@ -0,0 +1,161 @@
+package com.jogos;
+
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Partida em andamento salva em um snapshot binário pequeno e versionado.
+ * <p>
+ * A thread do FX só copia o estado para um buffer reutilizado (bem abaixo de 1 ms); a
+ * gravação via {@link FileChannel} (arquivo temporário + move atômico) e a leitura na
+ * inicialização rodam em uma thread de I/O. Formato:
+ * <pre>
+ *   int   MAGIC  ("RMSS")
+ *   short VERSION
+ *   int   tamanho do corpo
+ *   ...   corpo (escrito/lido pelo App, na ordem definida em App.saveSession)
+ *   int   CRC32C do corpo
+ * </pre>
+ * Um arquivo com versão diferente, truncado ou com CRC errado é ignorado.
+ */
+public final class SessionStore {
+
+    public static final short VERSION = 3;
+    private static final int MAGIC = 0x524D5353;
+    private static final int HEADER_BYTES = 4 + 2 + 4;
+    private static final int MAX_BYTES = 64 * 1024;
+
+    private final Path file;
+    private final Path temp;
+    private final ByteBuffer scratch = ByteBuffer.allocate(MAX_BYTES);
+    private final CRC32C crc = new CRC32C();
+    private final ExecutorService io;
+
+    public SessionStore(Path file) {
+        this.file = file;
+        this.temp = file.resolveSibling(file.getFileName() + ".tmp");
+        io = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "session-io");
+            t.setDaemon(true);
+            return t;
+        });
+        // desligamento do quiosque: espera a última gravação pendente
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush));
+    }
+
+    // === Gravação ===
+
+    /** Começa um snapshot: devolve o buffer (reutilizado) posicionado no início do corpo. */
+    public ByteBuffer beginSave() {
+        scratch.clear();
+        scratch.putInt(MAGIC).putShort(VERSION).putInt(0);
+        return scratch;
+    }
+
+    /** Fecha o snapshot iniciado em {@link #beginSave} e agenda a gravação em segundo plano. */
+    public void commitSave() {
+        int bodyLength = scratch.position() - HEADER_BYTES;
+        scratch.putInt(6, bodyLength);
+        crc.reset();
+        crc.update(scratch.array(), HEADER_BYTES, bodyLength);
+        scratch.putInt((int) crc.getValue());
+
+        byte[] copy = new byte[scratch.position()];
+        System.arraycopy(scratch.array(), 0, copy, 0, copy.length);
+        io.execute(() -> write(copy));
+    }
+
+    private void write(byte[] data) {
+        try (FileChannel ch = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer b = ByteBuffer.wrap(data);
+            while (b.hasRemaining()) ch.write(b);
+            ch.force(false);
+        } catch (IOException e) {
+            System.err.println("SessionStore: erro gravando sessão -> " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("SessionStore: erro substituindo sessão -> " + e.getMessage());
+        }
+    }
+
+    /** Descarta a sessão salva (a partida terminou). */
+    public void delete() {
+        io.execute(() -> {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("SessionStore: erro removendo sessão -> " + e.getMessage());
+            }
+        });
+    }
+
+    /** Espera as operações de I/O pendentes (chamado ao fechar o jogo). */
+    public void flush() {
+        try {
+            io.submit(() -> { }).get(2, TimeUnit.SECONDS);
+        } catch (Exception ignored) { }
+    }
+
+    // === Leitura ===
+
+    /**
+     * Lê a sessão salva em segundo plano. Se houver uma válida, {@code onLoaded} recebe, na
+     * thread do FX, o buffer posicionado no início do corpo.
+     */
+    public void loadAsync(Consumer<ByteBuffer> onLoaded) {
+        io.execute(() -> {
+            ByteBuffer body = read();
+            if (body != null) Platform.runLater(() -> onLoaded.accept(body));
+        });
+    }
+
+    /**
+     * Lê a sessão salva na thread que chamou (ferramentas offline como a exportação de
+     * vídeo, que não têm o que mostrar antes dela).
+     * @return buffer posicionado no início do corpo, ou null se não houver sessão válida
+     */
+    public ByteBuffer load() {
+        return read();
+    }
+
+    private ByteBuffer read() {
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_BYTES + 4 || size > MAX_BYTES) return null;
+            ByteBuffer b = ByteBuffer.allocate((int) size);
+            while (b.hasRemaining() && ch.read(b) >= 0) { }
+            b.flip();
+            if (b.remaining() != size) return null;
+
+            if (b.getInt() != MAGIC || b.getShort() != VERSION) return null;
+            int bodyLength = b.getInt();
+            if (bodyLength < 0 || HEADER_BYTES + bodyLength + 4 != size) return null;
+            CRC32C check = new CRC32C();
+            check.update(b.array(), HEADER_BYTES, bodyLength);
+            if (b.getInt(HEADER_BYTES + bodyLength) != (int) check.getValue()) return null;
+
+            b.limit(HEADER_BYTES + bodyLength);
+            return b;
+        } catch (IOException e) {
+            System.err.println("SessionStore: erro lendo sessão -> " + e.getMessage());
+            return null;
+        }
+    }
+}
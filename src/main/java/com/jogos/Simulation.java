@@ -0,0 +1,586 @@
+package com.jogos;
+
+import com.jogos.utils.AlphaMask;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulação dos itens em uma thread própria, com passo fixo.
+ * <p>
+ * A thread de simulação é dona da {@link ItemPhysics}: integra os corpos, detecta coleta
+ * (contra a {@link Collector.Hitbox} mais recente de cada jogador, na mesma passada) e itens
+ * perdidos. A thread do FX nunca
+ * espera por ela; as duas se comunicam só por estruturas sem lock:
+ * <ul>
+ *   <li>FX → simulação: fila circular de comandos (criar corpo, limpar) e os parâmetros do
+ *       frame (velocidade de queda, câmera lenta, ímã, hitbox da lixeira). Tudo o que o FX
+ *       envia num frame só é publicado por {@link #commitFrame}, então a simulação aplica o
+ *       frame inteiro de uma vez, entre dois passos, e avisa em que passo
+ *       ({@link #EVENT_FRAME});</li>
+ *   <li>simulação → FX: fila circular de eventos (coleta, perda, frame aplicado), cada um com
+ *       o passo em que aconteceu, e um buffer triplo de snapshots com as posições; o FX
+ *       sempre lê o snapshot completo mais recente.</li>
+ * </ul>
+ * Com os passos dos snapshots lidos e os passos em que cada frame entrou, uma partida pode
+ * ser refeita igual com o relógio manual ({@link #stepManually(int, long)}).
+ * As regras do jogo (pontos, vidas, sons, partículas, nós da cena) continuam no FX, que
+ * reage aos eventos. Os handles carregam uma geração, então eventos e snapshots antigos de
+ * um item já removido nunca são aplicados ao item que reutilizou o mesmo slot.
+ */
+public class Simulation {
+
+    public static final int EVENT_CATCH = 0;
+    public static final int EVENT_MISS = 1;
+    public static final int EVENT_FRAME = 2;
+    public static final int MAX_PLAYERS = 2;
+
+    public static final int STEPS_PER_SECOND = 120;
+    private static final long STEP_NANOS = 1_000_000_000L / STEPS_PER_SECOND;
+    private static final double STEP_SECONDS = 1.0 / STEPS_PER_SECOND;
+    private static final int MAX_CATCH_UP_STEPS = 8;
+
+    private static final int OP_SPAWN = 0;
+    private static final int OP_CLEAR = 1;
+    private static final int OP_WIND = 2;
+    private static final int OP_FRAME = 3;
+
+    private static final int SLOT_BITS = 12;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int GEN_MASK = (1 << (31 - SLOT_BITS)) - 1; // handles sempre >= 0
+    private static final int RING = 1024;
+    private static final int RING_MASK = RING - 1;
+
+    /** Posições publicadas pela simulação. Só é lido pelo FX depois de publicado. */
+    public static final class Snapshot {
+        public int count;
+        public long step;
+        // vento no fim do passo (ver ItemPhysics.setWindState)
+        public float wind, windTarget, gustTimer;
+        public long windRandomState;
+        public final int[] handle;
+        public final float[] x, y, angle, vx, vy, omega;
+
+        Snapshot(int capacity) {
+            handle = new int[capacity];
+            x = new float[capacity];
+            y = new float[capacity];
+            angle = new float[capacity];
+            vx = new float[capacity];
+            vy = new float[capacity];
+            omega = new float[capacity];
+        }
+    }
+
+    private final int capacity;
+    private final ItemPhysics physics;
+
+    // === Buffer triplo: índice do buffer compartilhado + bit "novo" ===
+    private static final int FRESH = 4;
+    private final Snapshot[] buffers = new Snapshot[3];
+    private final AtomicInteger shared = new AtomicInteger(1);
+    private int back = 0;   // só a simulação
+    private int front = 2;  // só o FX
+    private long stepCount = 0;
+
+    // === Comandos (FX → simulação) ===
+    private final byte[] cmdOp = new byte[RING];
+    private final int[] cmdHandle = new int[RING];
+    private final float[] cmdX = new float[RING], cmdY = new float[RING], cmdW = new float[RING], cmdH = new float[RING];
+    private final float[] cmdVx = new float[RING], cmdVy = new float[RING], cmdOmega = new float[RING], cmdAngle = new float[RING];
+    private final boolean[] cmdMagnetic = new boolean[RING];
+    private final AlphaMask[] cmdMask = new AlphaMask[RING];
+    private final long[] cmdState = new long[RING];
+    private final FrameParams[] cmdParams = new FrameParams[RING];
+    private final AtomicLong cmdHead = new AtomicLong();
+    private final AtomicLong cmdTail = new AtomicLong();
+    private long cmdPending = 0; // só o FX: próximo slot a escrever; vai para cmdTail no commit
+
+    // === Eventos (simulação → FX) ===
+    private final byte[] evKind = new byte[RING];
+    private final byte[] evPlayer = new byte[RING];
+    private final int[] evHandle = new int[RING];
+    private final float[] evX = new float[RING], evY = new float[RING];
+    private final long[] evStep = new long[RING];
+    private final long[] evFrame = new long[RING];
+    private final AtomicLong evHead = new AtomicLong();
+    private final AtomicLong evTail = new AtomicLong();
+
+    // === Parâmetros do frame ===
+    private static final class FrameParams {
+        float terminalVy = 0, timeScale = 1, worldW = 1, viewW = 1, worldH = 1;
+        float magnetX = Float.NaN, magnetX2 = Float.NaN, magnetMinY = 0, magnetSpeed = 0;
+        // uma lixeira por jogador; null = jogador fora da partida
+        Collector.Hitbox hitbox, hitbox2;
+        float hitboxX, hitboxY, hitboxX2, hitboxY2;
+
+        void copyFrom(FrameParams o) {
+            terminalVy = o.terminalVy;
+            timeScale = o.timeScale;
+            worldW = o.worldW;
+            viewW = o.viewW;
+            worldH = o.worldH;
+            magnetX = o.magnetX;
+            magnetX2 = o.magnetX2;
+            magnetMinY = o.magnetMinY;
+            magnetSpeed = o.magnetSpeed;
+            hitbox = o.hitbox;
+            hitbox2 = o.hitbox2;
+            hitboxX = o.hitboxX;
+            hitboxY = o.hitboxY;
+            hitboxX2 = o.hitboxX2;
+            hitboxY2 = o.hitboxY2;
+        }
+    }
+
+    private final FrameParams pending = new FrameParams(); // só o FX: vai no próximo commitFrame
+    private final FrameParams params = new FrameParams();  // só a simulação: último frame aplicado
+    private long committedFrames = 0;  // só o FX
+    private boolean haveFrame = false; // só a simulação: já chegou um frame depois do último clear
+    private volatile long publishedSteps = 0;
+    private volatile boolean running = false;
+    private volatile boolean alive = true;
+    // relógio manual (exportação de vídeo): passos pedidos pelo FX e passos já publicados
+    private volatile boolean manualClock = false;
+    private volatile long manualTarget = 0;
+    private volatile long manualDone = 0;
+    private volatile long manualFrameLimit = Long.MAX_VALUE; // último frame que pode ser aplicado
+    private final Thread thread;
+
+    // === Lado do FX: handle -> item ===
+    private final GameItem[] items;
+    private final int[] generation;
+    private final int[] freeSlots;
+    private int freeCount;
+
+    public Simulation(int capacity) {
+        if (capacity > SLOT_MASK + 1) throw new IllegalArgumentException("Capacidade máxima: " + (SLOT_MASK + 1));
+        this.capacity = capacity;
+        physics = new ItemPhysics(capacity);
+        for (int i = 0; i < buffers.length; i++) buffers[i] = new Snapshot(capacity);
+        for (int i = 0; i < RING; i++) cmdParams[i] = new FrameParams();
+
+        items = new GameItem[capacity];
+        generation = new int[capacity];
+        freeSlots = new int[capacity];
+        resetSlots();
+
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // === API do FX ===
+
+    /**
+     * Cria o corpo de um item na posição e ângulo atuais dele. O item só começa a se mover
+     * depois do próximo {@link #commitFrame}; até lá continua parado.
+     * @return false se não houver slot livre ou a fila de comandos estiver cheia
+     */
+    public boolean spawn(GameItem item, double vx, double vy, double omega) {
+        if (freeCount == 0) return false;
+        long t = cmdPending;
+        if (t - cmdHead.get() >= RING) return false;
+
+        int slot = freeSlots[--freeCount];
+        int h = ((++generation[slot] & GEN_MASK) << SLOT_BITS) | slot;
+        items[slot] = item;
+        item.handle = h;
+
+        int i = (int) (t & RING_MASK);
+        cmdOp[i] = OP_SPAWN;
+        cmdHandle[i] = h;
+        cmdX[i] = (float) item.x;
+        cmdY[i] = (float) item.y;
+        cmdW[i] = (float) item.getRenderedWidth();
+        cmdH[i] = (float) item.getRenderedHeight();
+        cmdVx[i] = (float) vx;
+        cmdVy[i] = (float) vy;
+        cmdOmega[i] = (float) omega;
+        cmdAngle[i] = (float) item.angle;
+        item.vx = vx;
+        item.vy = vy;
+        item.omega = omega;
+        cmdMagnetic[i] = item.type != ItemType.BATTERY;
+        cmdMask[i] = item.getMask();
+        cmdPending = t + 1;
+        return true;
+    }
+
+    /**
+     * Restaura o vento de uma partida salva; vale a partir do próximo {@link #commitFrame}.
+     * @return false se a fila de comandos estiver cheia
+     */
+    public boolean setWind(float wind, float target, float gust, long randomState) {
+        long t = cmdPending;
+        if (t - cmdHead.get() >= RING) return false;
+        int i = (int) (t & RING_MASK);
+        cmdOp[i] = OP_WIND;
+        cmdX[i] = wind;
+        cmdY[i] = target;
+        cmdW[i] = gust;
+        cmdState[i] = randomState;
+        cmdPending = t + 1;
+        return true;
+    }
+
+    /**
+     * Semeia o gerador das rajadas de vento (partida nova); vale a partir do próximo
+     * {@link #commitFrame}.
+     * @return false se a fila de comandos estiver cheia
+     */
+    public boolean setSeed(long seed) {
+        StatefulRandom r = new StatefulRandom();
+        r.setSeed(seed);
+        return setWind(0, 0, 0, r.getState());
+    }
+
+    /**
+     * Fecha o frame do FX: os comandos e os parâmetros enviados desde o último commit
+     * passam a valer juntos, entre dois passos. Espera (ativamente) só se a fila estiver
+     * cheia, o que não acontece com os poucos comandos de um frame.
+     * @return número do frame confirmado (o mesmo do {@link #EVENT_FRAME} correspondente)
+     */
+    public long commitFrame() {
+        long t = cmdPending;
+        if (t - cmdHead.get() >= RING) {
+            cmdTail.lazySet(t);
+            LockSupport.unpark(thread);
+            while (t - cmdHead.get() >= RING) Thread.onSpinWait();
+        }
+        int i = (int) (t & RING_MASK);
+        cmdOp[i] = OP_FRAME;
+        cmdState[i] = ++committedFrames;
+        cmdParams[i].copyFrom(pending);
+        cmdPending = t + 1;
+        cmdTail.lazySet(t + 1);
+        return committedFrames;
+    }
+
+    /** Frames já confirmados por {@link #commitFrame} (só o FX). */
+    public long getCommittedFrames() { return committedFrames; }
+
+    /** Remove todos os corpos (nova partida). Handles antigos deixam de ser reconhecidos. */
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            if (items[i] != null) items[i].handle = -1;
+            items[i] = null;
+            generation[i]++;
+        }
+        resetSlots();
+        evHead.lazySet(evTail.get()); // eventos da partida anterior não interessam mais
+        long t = cmdPending;
+        // a fila só enche com spawns, que a simulação esvazia a cada acordada
+        cmdTail.lazySet(t);
+        LockSupport.unpark(thread);
+        while (t - cmdHead.get() >= RING) Thread.onSpinWait();
+        cmdOp[(int) (t & RING_MASK)] = OP_CLEAR;
+        cmdPending = t + 1;
+        cmdTail.lazySet(t + 1);
+        LockSupport.unpark(thread);
+    }
+
+    private void resetSlots() {
+        freeCount = capacity;
+        for (int i = 0; i < capacity; i++) freeSlots[i] = capacity - 1 - i;
+    }
+
+    /** Item dono do handle, ou null se o handle for de um item já removido. */
+    public GameItem itemFor(int handle) {
+        if (handle < 0) return null;
+        int slot = handle & SLOT_MASK;
+        if (slot >= capacity) return null;
+        GameItem item = items[slot];
+        return item != null && item.handle == handle ? item : null;
+    }
+
+    /** Libera o slot de um item removido pelo FX depois de um evento. */
+    public void release(GameItem item) {
+        int h = item.handle;
+        if (itemFor(h) != item) return;
+        int slot = h & SLOT_MASK;
+        items[slot] = null;
+        item.handle = -1;
+        freeSlots[freeCount++] = slot;
+    }
+
+    /** Snapshot completo mais recente; o mesmo objeto é devolvido até sair um mais novo. */
+    public Snapshot latestSnapshot() {
+        if ((shared.get() & FRESH) != 0) front = shared.getAndSet(front) & 3;
+        return buffers[front];
+    }
+
+    /** O snapshot devolvido pela última chamada de {@link #latestSnapshot}, sem trocar. */
+    public Snapshot currentSnapshot() {
+        return buffers[front];
+    }
+
+    public boolean hasEvent() {
+        return evHead.get() != evTail.get();
+    }
+
+    public int peekEventKind() { return evKind[(int) (evHead.get() & RING_MASK)]; }
+    public int peekEventHandle() { return evHandle[(int) (evHead.get() & RING_MASK)]; }
+    /** Jogador que coletou (só em {@link #EVENT_CATCH}). */
+    public int peekEventPlayer() { return evPlayer[(int) (evHead.get() & RING_MASK)]; }
+    /** Passo em que o evento aconteceu; o FX só consome eventos até o passo do snapshot lido. */
+    public long peekEventStep() { return evStep[(int) (evHead.get() & RING_MASK)]; }
+    /** Frame aplicado (só em {@link #EVENT_FRAME}). */
+    public long peekEventFrame() { return evFrame[(int) (evHead.get() & RING_MASK)]; }
+    public float peekEventX() { return evX[(int) (evHead.get() & RING_MASK)]; }
+    public float peekEventY() { return evY[(int) (evHead.get() & RING_MASK)]; }
+
+    public void popEvent() {
+        evHead.lazySet(evHead.get() + 1);
+    }
+
+    public void setRunning(boolean run) {
+        running = run;
+        if (run) LockSupport.unpark(thread);
+    }
+
+    // os parâmetros abaixo valem a partir do próximo commitFrame
+
+    /**
+     * @param w     largura do mundo (laterais onde os itens rebatem)
+     * @param viewW largura da tela (escala do vento)
+     * @param h     altura do mundo
+     */
+    public void setWorldSize(double w, double viewW, double h) {
+        pending.worldW = (float) w;
+        pending.viewW = (float) viewW;
+        pending.worldH = (float) h;
+    }
+
+    public void setFallSpeed(double terminalPxPerSecond) { pending.terminalVy = (float) terminalPxPerSecond; }
+    public void setTimeScale(double scale) { pending.timeScale = (float) scale; }
+
+    /** Forma e posição da lixeira de um jogador (null tira o jogador da coleta). */
+    public void setHitbox(int player, Collector.Hitbox hb, double x, double y) {
+        if (player == 0) {
+            pending.hitbox = hb;
+            pending.hitboxX = (float) x;
+            pending.hitboxY = (float) y;
+        } else {
+            pending.hitbox2 = hb;
+            pending.hitboxX2 = (float) x;
+            pending.hitboxY2 = (float) y;
+        }
+    }
+
+    /**
+     * Troca o relógio de parede por passos pedidos com {@link #stepManually}: a simulação
+     * fica parada entre um pedido e outro, em qualquer velocidade do resto do jogo.
+     */
+    public void setManualClock(boolean manual) {
+        manualClock = manual;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Roda {@code steps} passos e espera eles serem publicados (microssegundos; a espera é
+     * ativa, como em {@link #clear}). Só com o relógio manual e a simulação rodando.
+     */
+    public void stepManually(int steps) {
+        stepManually(steps, Long.MAX_VALUE);
+    }
+
+    /**
+     * Como {@link #stepManually(int)}, mas antes dos passos só aplica os frames confirmados
+     * até {@code throughFrame} (reprodução: cada frame entra no mesmo passo da gravação).
+     */
+    public void stepManually(int steps, long throughFrame) {
+        manualFrameLimit = throughFrame;
+        long target = manualTarget + steps;
+        manualTarget = target;
+        LockSupport.unpark(thread);
+        while (manualDone < target) Thread.onSpinWait();
+    }
+
+    /** Passos de física já rodados e publicados (lido de qualquer thread). */
+    public long getPublishedSteps() { return publishedSteps; }
+
+    public Thread getThread() { return thread; }
+
+    /**
+     * @param x        centro X do ímã, ou NaN para desligar
+     * @param x2       centro da segunda lixeira no co-op, ou NaN
+     * @param minY     altura a partir da qual o ímã atua
+     * @param speed    velocidade máxima de atração (px/s)
+     */
+    public void setMagnet(double x, double x2, double minY, double speed) {
+        pending.magnetMinY = (float) minY;
+        pending.magnetSpeed = (float) speed;
+        pending.magnetX2 = (float) x2;
+        pending.magnetX = (float) x;
+    }
+
+    // === Thread de simulação ===
+
+    private void run() {
+        long next = System.nanoTime();
+        while (alive) {
+            drainCommands(manualClock ? manualFrameLimit : Long.MAX_VALUE);
+            if (!running) {
+                LockSupport.park(this);
+                next = System.nanoTime();
+                continue;
+            }
+            if (manualClock) {
+                runManualSteps();
+                next = System.nanoTime();
+                continue;
+            }
+            if (!haveFrame) {
+                // partida nova: nenhum passo antes dos parâmetros do primeiro frame
+                LockSupport.parkNanos(this, STEP_NANOS);
+                next = System.nanoTime();
+                continue;
+            }
+
+            long now = System.nanoTime();
+            int steps = 0;
+            while (now - next >= 0 && steps < MAX_CATCH_UP_STEPS) {
+                step();
+                next += STEP_NANOS;
+                steps++;
+            }
+            if (steps == MAX_CATCH_UP_STEPS) next = now; // muito atrasada: descarta o atraso
+            if (steps > 0) publish();
+
+            long wait = next - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(this, wait);
+        }
+    }
+
+    private void runManualSteps() {
+        long target = manualTarget;
+        long done = manualDone;
+        if (done >= target) {
+            LockSupport.park(this);
+            return;
+        }
+        drainCommands(manualFrameLimit); // comandos enviados antes do pedido entram antes dos passos
+        for (; done < target; done++) step();
+        publish();
+        manualDone = done;
+    }
+
+    /**
+     * Aplica os comandos publicados. Se algum frame publicado passa de {@code throughFrame},
+     * para logo depois do último frame permitido: os comandos de um frame só entram junto
+     * com ele.
+     */
+    private void drainCommands(long throughFrame) {
+        long h = cmdHead.get();
+        long t = cmdTail.get();
+        if (throughFrame != Long.MAX_VALUE) {
+            long end = h;
+            for (long k = h; k < t; k++) {
+                int i = (int) (k & RING_MASK);
+                if (cmdOp[i] != OP_FRAME) continue;
+                if (cmdState[i] > throughFrame) {
+                    t = end;
+                    break;
+                }
+                end = k + 1;
+            }
+        }
+        for (; h < t; h++) {
+            int i = (int) (h & RING_MASK);
+            if (cmdOp[i] == OP_FRAME) {
+                params.copyFrom(cmdParams[i]);
+                haveFrame = true;
+                pushEvent(EVENT_FRAME, 0, -1, 0, 0, cmdState[i]);
+            } else if (cmdOp[i] == OP_CLEAR) {
+                physics.clear();
+                haveFrame = false;
+            } else if (cmdOp[i] == OP_WIND) {
+                physics.setWindState(cmdX[i], cmdY[i], cmdW[i], cmdState[i]);
+            } else {
+                physics.add(cmdHandle[i], cmdX[i], cmdY[i], cmdW[i], cmdH[i],
+                        cmdVx[i], cmdVy[i], cmdAngle[i], cmdOmega[i], cmdMagnetic[i], cmdMask[i]);
+            }
+            cmdMask[i] = null;
+        }
+        cmdHead.lazySet(h);
+    }
+
+    private void step() {
+        stepCount++;
+        FrameParams f = params;
+        double dt = STEP_SECONDS * f.timeScale;
+        physics.step(dt, f.terminalVy, f.worldW, f.viewW, f.magnetX, f.magnetX2, f.magnetMinY, f.magnetSpeed * STEP_SECONDS);
+
+        Collector.Hitbox hb = f.hitbox;
+        float bx = f.hitboxX;
+        float by = f.hitboxY;
+        Collector.Hitbox hb2 = f.hitbox2;
+        float bx2 = f.hitboxX2;
+        float by2 = f.hitboxY2;
+        double missY = f.worldH + 200;
+        ItemPhysics p = physics;
+        int i = 0;
+        while (i < p.getCount()) {
+            int kind = -1;
+            int player = 0;
+            if (p.y[i] > missY) {
+                kind = EVENT_MISS;
+            } else if (hb != null && hb.hits(bx, by, p.x[i], p.y[i], p.w[i], p.h[i], p.angle[i], p.mask[i])) {
+                kind = EVENT_CATCH;
+            } else if (hb2 != null && hb2.hits(bx2, by2, p.x[i], p.y[i], p.w[i], p.h[i], p.angle[i], p.mask[i])) {
+                kind = EVENT_CATCH;
+                player = 1;
+            }
+
+            // com a fila de eventos cheia o corpo fica para o próximo passo
+            if (kind >= 0 && pushEvent(kind, player, p.handle[i], p.x[i], p.y[i], 0)) {
+                p.removeAt(i);
+                continue;
+            }
+            i++;
+        }
+    }
+
+    private boolean pushEvent(int kind, int player, int handle, float x, float y, long frame) {
+        long t = evTail.get();
+        if (t - evHead.get() >= RING) return false;
+        int i = (int) (t & RING_MASK);
+        evKind[i] = (byte) kind;
+        evPlayer[i] = (byte) player;
+        evHandle[i] = handle;
+        evX[i] = x;
+        evY[i] = y;
+        evStep[i] = stepCount;
+        evFrame[i] = frame;
+        evTail.lazySet(t + 1);
+        return true;
+    }
+
+    private void publish() {
+        Snapshot s = buffers[back];
+        ItemPhysics p = physics;
+        int n = p.getCount();
+        System.arraycopy(p.handle, 0, s.handle, 0, n);
+        System.arraycopy(p.x, 0, s.x, 0, n);
+        System.arraycopy(p.y, 0, s.y, 0, n);
+        System.arraycopy(p.angle, 0, s.angle, 0, n);
+        System.arraycopy(p.vx, 0, s.vx, 0, n);
+        System.arraycopy(p.vy, 0, s.vy, 0, n);
+        System.arraycopy(p.omega, 0, s.omega, 0, n);
+        s.count = n;
+        s.step = stepCount;
+        s.wind = p.getWind();
+        s.windTarget = p.getWindTarget();
+        s.gustTimer = p.getGustTimer();
+        s.windRandomState = p.getWindRandomState();
+        back = shared.getAndSet(back | FRESH) & 3;
+        publishedSteps = stepCount;
+    }
+
+    public void shutdown() {
+        alive = false;
+        LockSupport.unpark(thread);
+    }
+}
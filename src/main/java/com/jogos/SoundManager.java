@@ -1,12 +1,19 @@
 package com.jogos;
 
+import com.jogos.jfr.GameRecording;
+import com.jogos.jfr.SoundEvent;
 import javafx.scene.media.AudioClip;
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
 import java.net.URL;
+import java.nio.file.Path;
 
 public class SoundManager {
 
+    private static final String MUSIC_FILE = "668879__zhr__retroclassic-game-music.wav";
+    private static final String COLLECT_FILE = "831946__sadiquecat__blowing-dji-mic3.wav";
+    private static final String EXPLOSION_FILE = "67471__qubodup__m67_fragmentation_grenade_explosion_2_no_echo.wav";
+
     private static double musicVolume = 1.0;
     private static double effectsVolume = 1.0;
 
@@ -17,7 +24,7 @@ public class SoundManager {
     public static void init() {
         try {
             // === Música de fundo ===
-            URL musicUrl = SoundManager.class.getResource("/com/jogos/Audios/668879__zhr__retroclassic-game-music.wav");
+            URL musicUrl = SoundManager.class.getResource("/com/jogos/Audios/" + MUSIC_FILE);
             if (musicUrl != null) {
                 Media music = new Media(musicUrl.toExternalForm());
                 backgroundMusic = new MediaPlayer(music);
@@ -26,14 +33,14 @@ public class SoundManager {
             }
 
             // === Som de coleta (metade do volume base) ===
-            URL collectUrl = SoundManager.class.getResource("/com/jogos/Audios/831946__sadiquecat__blowing-dji-mic3.wav");
+            URL collectUrl = SoundManager.class.getResource("/com/jogos/Audios/" + COLLECT_FILE);
             if (collectUrl != null) {
                 collectSound = new AudioClip(collectUrl.toExternalForm());
                 collectSound.setVolume(effectsVolume * 0.5);
             }
 
             // === Som de explosão ===
-            URL explosionUrl = SoundManager.class.getResource("/com/jogos/Audios/67471__qubodup__m67_fragmentation_grenade_explosion_2_no_echo.wav");
+            URL explosionUrl = SoundManager.class.getResource("/com/jogos/Audios/" + EXPLOSION_FILE);
             if (explosionUrl != null) {
                 explosionSound = new AudioClip(explosionUrl.toExternalForm());
                 explosionSound.setVolume(effectsVolume);
@@ -48,6 +55,7 @@ public class SoundManager {
         if (backgroundMusic != null) {
             backgroundMusic.setVolume(musicVolume * 0.6);
             backgroundMusic.play();
+            record("music", musicVolume * 0.6);
         }
     }
 
@@ -56,11 +64,64 @@ public class SoundManager {
     }
 
     public static void playCollect() {
-        if (collectSound != null) collectSound.play(effectsVolume * 0.5);
+        if (collectSound != null) {
+            collectSound.play(effectsVolume * 0.5);
+            record("collect", effectsVolume * 0.5);
+        }
     }
 
     public static void playExplosion() {
-        if (explosionSound != null) explosionSound.play(effectsVolume);
+        if (explosionSound != null) {
+            explosionSound.play(effectsVolume);
+            record("explosion", effectsVolume);
+        }
+    }
+
+    /**
+     * Carrega de novo um áudio alterado (recarga em desenvolvimento). O arquivo é lido na
+     * thread chamadora; o Runnable devolvido troca o som e deve rodar na thread do FX.
+     * @return ação de troca, ou null se o arquivo não é um dos sons do jogo
+     */
+    public static Runnable prepareReload(String fileName, Path file) {
+        String url = file.toUri().toString();
+        switch (fileName) {
+            case MUSIC_FILE -> {
+                MediaPlayer player = new MediaPlayer(new Media(url));
+                player.setCycleCount(MediaPlayer.INDEFINITE);
+                return () -> {
+                    boolean playing = backgroundMusic != null
+                            && backgroundMusic.getStatus() == MediaPlayer.Status.PLAYING;
+                    if (backgroundMusic != null) backgroundMusic.dispose();
+                    backgroundMusic = player;
+                    if (playing) playMusic();
+                };
+            }
+            case COLLECT_FILE -> {
+                AudioClip clip = new AudioClip(url);
+                return () -> {
+                    collectSound = clip;
+                    collectSound.setVolume(effectsVolume * 0.5);
+                };
+            }
+            case EXPLOSION_FILE -> {
+                AudioClip clip = new AudioClip(url);
+                return () -> {
+                    explosionSound = clip;
+                    explosionSound.setVolume(effectsVolume);
+                };
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private static void record(String sound, double volume) {
+        if (!GameRecording.SOUND.isEnabled()) return;
+        SoundEvent e = new SoundEvent();
+        e.sound = sound;
+        e.volume = volume;
+        e.commit();
     }
 
     public static void setMusicVolume(double volume) {
@@ -0,0 +1,119 @@
+package com.jogos;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Cache persistente ("warm start") de sprites já decodificados.
+ * <p>
+ * Cada entrada é um arquivo no diretório de cache do usuário com os pixels ARGB
+ * e o bounding box visível já calculado. Na leitura o arquivo é mapeado em memória e
+ * o WritableImage é montado direto do buffer, sem decodificar o PNG nem varrer os pixels.
+ * A entrada guarda o hash do recurso original: se o asset mudar, ela é regravada.
+ * <p>
+ * Pode ser desligado com {@code -Dreciclamack.spriteCache=false}.
+ */
+public final class SpriteCache {
+
+    private static final int MAGIC = 0x52434d53; // "RCMS"
+    private static final int VERSION = 1;
+    // magic, version, hash(8), w, h, bounds x/y/w/h (double)
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4 + 4 * 8;
+
+    private static final boolean ENABLED =
+            !"false".equalsIgnoreCase(System.getProperty("reciclamack.spriteCache"));
+    private static final Path DIR = resolveDir();
+
+    public record Entry(WritableImage image, Rectangle2D visibleBounds) { }
+
+    private SpriteCache() { }
+
+    private static Path resolveDir() {
+        String base = System.getenv("XDG_CACHE_HOME");
+        if (base == null || base.isBlank()) base = System.getenv("LOCALAPPDATA");
+        if (base == null || base.isBlank()) base = Path.of(System.getProperty("user.home"), ".cache").toString();
+        return Path.of(base, "ReciclaMack", "sprites");
+    }
+
+    /**
+     * Hash do conteúdo do recurso (CRC32C + tamanho), usado para invalidar entradas antigas.
+     */
+    public static long hash(byte[] data) {
+        CRC32C crc = new CRC32C();
+        crc.update(data, 0, data.length);
+        return (crc.getValue() << 32) ^ data.length;
+    }
+
+    private static Path fileFor(String key) {
+        return DIR.resolve(key.replaceAll("[^A-Za-z0-9._-]", "_") + ".bin");
+    }
+
+    /**
+     * Procura a entrada no cache.
+     * @return a imagem montada do arquivo mapeado, ou null se ausente/obsoleta/corrompida
+     */
+    public static Entry lookup(String key, long hash) {
+        if (!ENABLED) return null;
+        Path file = fileFor(key);
+        if (!Files.isRegularFile(file)) return null;
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_BYTES) return null;
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) return null;
+            if (buf.getLong() != hash) return null; // asset mudou
+
+            int w = buf.getInt();
+            int h = buf.getInt();
+            Rectangle2D bounds = new Rectangle2D(buf.getDouble(), buf.getDouble(), buf.getDouble(), buf.getDouble());
+            if (w <= 0 || h <= 0 || size != HEADER_BYTES + 4L * w * h) return null;
+
+            IntBuffer pixels = buf.position(HEADER_BYTES).slice().asIntBuffer();
+            WritableImage img = new WritableImage(w, h);
+            img.getPixelWriter().setPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), pixels, w);
+            return new Entry(img, bounds);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("SpriteCache: entrada inválida " + file + " -> " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Grava (ou substitui) a entrada. Escreve em arquivo temporário e move no final,
+     * para nunca deixar uma entrada parcial.
+     */
+    public static void store(String key, long hash, int w, int h, int[] argb, Rectangle2D bounds) {
+        if (!ENABLED || argb == null) return;
+        Path file = fileFor(key);
+        try {
+            Files.createDirectories(DIR);
+            Path tmp = Files.createTempFile(DIR, "sprite", ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + 4 * argb.length);
+                buf.putInt(MAGIC).putInt(VERSION).putLong(hash).putInt(w).putInt(h);
+                buf.putDouble(bounds.getMinX()).putDouble(bounds.getMinY())
+                        .putDouble(bounds.getWidth()).putDouble(bounds.getHeight());
+                buf.asIntBuffer().put(argb);
+                buf.position(0);
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("SpriteCache: não foi possível gravar " + file + " -> " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.jogos;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Mede o tempo de inicialização fase a fase (JVM, assets, cena, primeiro frame).
+ * <p>
+ * Os tempos são impressos no console quando {@link #report()} é chamado e, se a
+ * propriedade {@code -Dreciclamack.startupTrace=arquivo.csv} estiver definida,
+ * também exportados em CSV (fase, duração em ms, tempo desde o início da JVM em ms).
+ */
+public final class StartupTracer {
+
+    private static final List<String> phases = new ArrayList<>();
+    private static final List<Long> stamps = new ArrayList<>();
+    private static long jvmUptimeAtStartMs = 0;
+    private static boolean reported = false;
+
+    private StartupTracer() { }
+
+    /**
+     * Marca o fim de uma fase. A duração da primeira fase é o uptime da JVM até a chamada.
+     */
+    public static void mark(String phase) {
+        if (reported) return;
+        if (phases.isEmpty()) {
+            jvmUptimeAtStartMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        }
+        phases.add(phase);
+        stamps.add(System.nanoTime());
+    }
+
+    public static void report() {
+        if (reported || phases.isEmpty()) return;
+        reported = true;
+
+        // nanoTime não tem origem fixa: ancora no uptime da JVM no primeiro marco
+        long origin = stamps.get(0) - jvmUptimeAtStartMs * 1_000_000L;
+        long total = stamps.get(stamps.size() - 1) - origin;
+
+        // Locale.ROOT: em pt-BR "%.2f" sai com vírgula e quebra as colunas do CSV
+        StringBuilder csv = new StringBuilder("phase,duration_ms,since_jvm_start_ms\n");
+        StringBuilder line = new StringBuilder("Startup:");
+        long prev = origin;
+        for (int i = 0; i < phases.size(); i++) {
+            String name = phases.get(i);
+            long t = stamps.get(i);
+            double dur = (t - prev) / 1_000_000.0;
+            double since = (t - origin) / 1_000_000.0;
+            csv.append(name).append(',').append(String.format(Locale.ROOT, "%.2f", dur)).append(',')
+                    .append(String.format(Locale.ROOT, "%.2f", since)).append('\n');
+            line.append(' ').append(name).append('=').append(String.format(Locale.ROOT, "%.1fms", dur));
+            prev = t;
+        }
+        line.append(" | time-to-first-frame=").append(String.format(Locale.ROOT, "%.1fms", total / 1_000_000.0));
+        System.out.println(line);
+
+        String out = System.getProperty("reciclamack.startupTrace");
+        if (out != null && !out.isBlank()) {
+            try {
+                Files.writeString(Path.of(out), csv);
+            } catch (IOException e) {
+                System.err.println("StartupTracer: não foi possível exportar -> " + e.getMessage());
+            }
+        }
+    }
+}
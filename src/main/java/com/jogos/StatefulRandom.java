@@ -0,0 +1,44 @@
+package com.jogos;
+
+import java.util.Random;
+
+/**
+ * {@link Random} com o mesmo gerador linear congruente, mas com o estado interno exposto,
+ * para que a sequência de spawns e de rajadas de vento continue igual depois de salvar e
+ * restaurar a partida. Não é thread-safe: cada instância pertence a uma única thread.
+ */
+public class StatefulRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    // sem inicializador: o construtor de Random chama setSeed antes dos campos desta classe
+    private long state;
+
+    public StatefulRandom() {
+        super();
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long s) {
+        state = s & MASK;
+    }
+}
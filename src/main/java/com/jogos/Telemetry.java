@@ -0,0 +1,226 @@
+package com.jogos;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Telemetria de jogo gravada fora da thread do FX.
+ * <p>
+ * O loop chama {@link #emit} nos pontos de spawn, coleta, perda, vida perdida e fim de
+ * jogo. Os eventos vão para uma fila circular pré-alocada (arrays primitivos, um produtor);
+ * se a fila estiver cheia o evento é descartado e contado, nunca bloqueia nem aloca.
+ * Uma thread daemon esvazia a fila em arquivos NDJSON, trocando de arquivo por tamanho.
+ * <p>
+ * Desligada por padrão; liga com {@code -Dreciclamack.telemetry=dir}. Guarda no máximo
+ * {@value #MAX_FILES} arquivos: ao trocar de arquivo, os mais antigos são apagados, então um
+ * quiosque sempre ligado não enche o disco.
+ */
+public final class Telemetry {
+
+    public static final int SPAWN = 0;
+    public static final int CATCH = 1;
+    public static final int MISS = 2;
+    public static final int LIFE_LOST = 3;
+    public static final int GAME_OVER = 4;
+
+    public static final int REASON_NO_LIVES = 0;
+    public static final int REASON_QUIT = 1;
+
+    private static final String[] EVENT_NAMES = { "spawn", "catch", "miss", "life_lost", "game_over" };
+    private static final String[] REASON_NAMES = { "no_lives", "quit" };
+    private static final ItemType[] ITEM_TYPES = ItemType.values();
+
+    private static final int CAPACITY = 1 << 14;
+    private static final int MASK = CAPACITY - 1;
+    private static final long MAX_FILE_BYTES = 8L * 1024 * 1024;
+    private static final int MAX_FILES = 16; // até 128 MB em disco
+    private static final long DRAIN_INTERVAL_NANOS = 200_000_000L;
+
+    private final long[] time = new long[CAPACITY];
+    private final byte[] event = new byte[CAPACITY];
+    private final byte[] item = new byte[CAPACITY];
+    private final float[] x = new float[CAPACITY];
+    private final float[] y = new float[CAPACITY];
+    private final int[] level = new int[CAPACITY];
+    private final int[] value = new int[CAPACITY];
+    private final byte[] reason = new byte[CAPACITY];
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final Path dir;
+    private final long nanoOrigin = System.nanoTime();
+    private final long epochOriginMs = System.currentTimeMillis();
+    private Thread writer;
+    private volatile boolean running = false;
+
+    // estado do escritor (só a thread de escrita mexe)
+    private BufferedWriter out;
+    private long fileBytes = 0;
+    private final StringBuilder line = new StringBuilder(160);
+
+    private Telemetry(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Cria a telemetria conforme a propriedade de sistema; devolve null se estiver desligada.
+     */
+    public static Telemetry fromSystemProperties() {
+        String value = System.getProperty("reciclamack.telemetry");
+        if (value == null || value.isBlank() || "off".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) return null;
+        Telemetry t = new Telemetry(Path.of(value));
+        t.start();
+        return t;
+    }
+
+    private void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "telemetry-writer");
+        writer.setDaemon(true);
+        writer.start();
+        // "Sair" chama System.exit: garante que o que está na fila chega ao disco
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+    }
+
+    /**
+     * Registra um evento. Chamado do loop do jogo: sem bloqueio e sem alocação.
+     *
+     * @param type  SPAWN, CATCH, MISS, LIFE_LOST ou GAME_OVER
+     * @param it    tipo do item (null quando não se aplica)
+     * @param px    posição X do item (coordenadas lógicas)
+     * @param py    posição Y do item
+     * @param lvl   nível de dificuldade (ondas de spawn desde o início da partida)
+     * @param val   pontuação no momento
+     */
+    public void emit(int type, ItemType it, double px, double py, int lvl, int val) {
+        emit(type, it, px, py, lvl, val, -1);
+    }
+
+    /**
+     * Fim de partida.
+     * @param why REASON_NO_LIVES ou REASON_QUIT
+     */
+    public void emitGameOver(int lvl, int score, int why) {
+        emit(GAME_OVER, null, 0, 0, lvl, score, why);
+    }
+
+    private void emit(int type, ItemType it, double px, double py, int lvl, int val, int why) {
+        long t = tail.get();
+        if (t - head.get() >= CAPACITY) {
+            dropped.incrementAndGet();
+            return;
+        }
+        int i = (int) (t & MASK);
+        time[i] = System.nanoTime();
+        event[i] = (byte) type;
+        item[i] = (byte) (it == null ? -1 : it.ordinal());
+        x[i] = (float) px;
+        y[i] = (float) py;
+        level[i] = lvl;
+        value[i] = val;
+        reason[i] = (byte) why;
+        tail.lazySet(t + 1);
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    // === Thread de escrita ===
+
+    private void drainLoop() {
+        while (running) {
+            drain();
+            LockSupport.parkNanos(DRAIN_INTERVAL_NANOS);
+        }
+        drain();
+    }
+
+    private synchronized void drain() {
+        long h = head.get();
+        long t = tail.get();
+        if (h == t) return;
+        try {
+            for (; h < t; h++) {
+                int i = (int) (h & MASK);
+                formatLine(i);
+                ensureFile();
+                out.write(line.toString());
+                fileBytes += line.length();
+                head.lazySet(h + 1);
+            }
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Telemetry: erro gravando -> " + e.getMessage());
+            head.set(t); // descarta o lote em vez de travar a fila
+        }
+    }
+
+    private void formatLine(int i) {
+        long epochMs = epochOriginMs + (time[i] - nanoOrigin) / 1_000_000L;
+        line.setLength(0);
+        line.append("{\"t\":").append(epochMs)
+                .append(",\"ev\":\"").append(EVENT_NAMES[event[i]]).append('"');
+        if (item[i] >= 0) line.append(",\"item\":\"").append(ITEM_TYPES[item[i]]).append('"');
+        if (event[i] != GAME_OVER) {
+            line.append(",\"x\":").append(Math.round(x[i]))
+                    .append(",\"y\":").append(Math.round(y[i]));
+        }
+        line.append(",\"level\":").append(level[i])
+                .append(",\"score\":").append(value[i]);
+        if (reason[i] >= 0) line.append(",\"reason\":\"").append(REASON_NAMES[reason[i]]).append('"');
+        line.append(",\"dropped\":").append(dropped.get()).append("}\n");
+    }
+
+    private void ensureFile() throws IOException {
+        if (out != null && fileBytes < MAX_FILE_BYTES) return;
+        if (out != null) out.close();
+        Files.createDirectories(dir);
+        pruneOldFiles();
+        String name = "telemetry-" + new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date()) + ".ndjson";
+        out = Files.newBufferedWriter(dir.resolve(name), StandardCharsets.UTF_8);
+        fileBytes = 0;
+    }
+
+    /** Apaga os arquivos mais antigos para, com o novo, ficarem no máximo MAX_FILES. */
+    private void pruneOldFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "telemetry-*.ndjson")) {
+            for (Path f : ds) files.add(f);
+        }
+        if (files.size() < MAX_FILES) return;
+        Collections.sort(files); // o nome começa pela data: ordem alfabética = cronológica
+        for (int i = 0; i <= files.size() - MAX_FILES; i++) Files.deleteIfExists(files.get(i));
+    }
+
+    public void close() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(1000);
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            drain();
+            try {
+                if (out != null) out.close();
+            } catch (IOException ignored) { }
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.jogos;
+
+import java.util.Arrays;
+
+/**
+ * Roda de timers com hash (hashed timing wheel) para efeitos temporizados.
+ * <p>
+ * O tempo avança em ticks inteiros, nunca pelo relógio da parede: o jogo chama
+ * {@link #advanceTicks} a cada tantos passos da {@code Simulation}, então uma reprodução
+ * determinística da simulação expira os efeitos exatamente nos mesmos passos. Agendar, cancelar e expirar
+ * são O(1) (expirar custa o tamanho do slot atual). Os timers vivem em arrays
+ * pré-alocados com lista livre; nada é alocado depois da construção e nenhum
+ * Timeline/PauseTransition é criado.
+ */
+public class TimerWheel {
+
+    @FunctionalInterface
+    public interface Listener {
+        void onExpire(int payload);
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(int remainingTicks, int payload);
+    }
+
+    private static final int NONE = -1;
+
+    private final int slotMask;
+    private final int slotBits;
+    private final int[] slotHead;
+    private final double tickSeconds;
+    private final Listener listener;
+
+    // pool de timers (listas duplamente ligadas por slot)
+    private final int[] next;
+    private final int[] prev;
+    private final int[] slotOf;
+    private final int[] rounds;
+    private final int[] payload;
+    private final int[] generation; // invalida handles antigos após reuso
+    private int freeHead;
+
+    private long currentTick = 0;
+
+    /**
+     * @param slotsPowerOfTwo número de slots (potência de 2)
+     * @param capacity        máximo de timers simultâneos
+     * @param tickSeconds     duração de um tick em segundos de simulação
+     */
+    public TimerWheel(int slotsPowerOfTwo, int capacity, double tickSeconds, Listener listener) {
+        if (Integer.bitCount(slotsPowerOfTwo) != 1)
+            throw new IllegalArgumentException("Número de slots deve ser potência de 2: " + slotsPowerOfTwo);
+        this.slotMask = slotsPowerOfTwo - 1;
+        this.slotBits = Integer.numberOfTrailingZeros(slotsPowerOfTwo);
+        this.slotHead = new int[slotsPowerOfTwo];
+        this.tickSeconds = tickSeconds;
+        this.listener = listener;
+
+        next = new int[capacity];
+        prev = new int[capacity];
+        slotOf = new int[capacity];
+        rounds = new int[capacity];
+        payload = new int[capacity];
+        generation = new int[capacity];
+        clear();
+    }
+
+    /** Remove todos os timers e zera o relógio (nova partida). */
+    public void clear() {
+        Arrays.fill(slotHead, NONE);
+        for (int i = 0; i < next.length; i++) {
+            next[i] = i + 1 < next.length ? i + 1 : NONE;
+            slotOf[i] = NONE;
+            generation[i]++;
+        }
+        freeHead = next.length > 0 ? 0 : NONE;
+        currentTick = 0;
+    }
+
+    public int ticksFor(double seconds) {
+        return Math.max(1, (int) Math.round(seconds / tickSeconds));
+    }
+
+    /**
+     * Agenda um timer.
+     * @return handle para {@link #cancel}, ou -1 se a roda estiver cheia
+     */
+    public long schedule(double delaySeconds, int data) {
+        return scheduleTicks(ticksFor(delaySeconds), data);
+    }
+
+    /**
+     * Agenda um timer para daqui a {@code delay} ticks (mínimo 1).
+     * @return handle para {@link #cancel}, ou -1 se a roda estiver cheia
+     */
+    public long scheduleTicks(int delay, int data) {
+        if (freeHead == NONE) return NONE;
+        int id = freeHead;
+        freeHead = next[id];
+
+        delay = Math.max(1, delay);
+        long due = currentTick + delay;
+        int slot = (int) (due & slotMask);
+        rounds[id] = (delay - 1) >>> slotBits;
+        payload[id] = data;
+        slotOf[id] = slot;
+
+        // insere no início do slot
+        prev[id] = NONE;
+        next[id] = slotHead[slot];
+        if (slotHead[slot] != NONE) prev[slotHead[slot]] = id;
+        slotHead[slot] = id;
+
+        return ((long) (generation[id] & Integer.MAX_VALUE) << 32) | id;
+    }
+
+    /** Cancela um timer ainda pendente; handles já expirados ou inválidos são ignorados. */
+    public void cancel(long handle) {
+        if (handle < 0) return;
+        int id = (int) handle;
+        if (id >= next.length || (generation[id] & Integer.MAX_VALUE) != (int) (handle >>> 32) || slotOf[id] == NONE) return;
+        unlink(id);
+        release(id);
+    }
+
+    /** Ticks até o timer vencer, ou -1 se o handle já expirou, foi cancelado ou é inválido. */
+    public int remainingTicks(long handle) {
+        if (handle < 0) return NONE;
+        int id = (int) handle;
+        if (id >= next.length || (generation[id] & Integer.MAX_VALUE) != (int) (handle >>> 32) || slotOf[id] == NONE) return NONE;
+        return ticksLeft(id);
+    }
+
+    /** Visita todos os timers pendentes (ordem indefinida), sem alterar a roda. */
+    public void forEachPending(Visitor visitor) {
+        for (int slot = 0; slot < slotHead.length; slot++) {
+            for (int id = slotHead[slot]; id != NONE; id = next[id]) visitor.visit(ticksLeft(id), payload[id]);
+        }
+    }
+
+    private int ticksLeft(int id) {
+        // o slot atual já foi processado: um timer nele só vence na próxima volta
+        int distance = (int) ((slotOf[id] - currentTick) & slotMask);
+        if (distance == 0) distance = slotMask + 1;
+        return distance + (rounds[id] << slotBits);
+    }
+
+    private void unlink(int id) {
+        int slot = slotOf[id];
+        if (prev[id] != NONE) next[prev[id]] = next[id];
+        else slotHead[slot] = next[id];
+        if (next[id] != NONE) prev[next[id]] = prev[id];
+    }
+
+    private void release(int id) {
+        slotOf[id] = NONE;
+        generation[id]++;
+        next[id] = freeHead;
+        freeHead = id;
+    }
+
+    /**
+     * Avança {@code ticks} ticks inteiros e dispara os timers vencidos, em ordem de tick.
+     */
+    public void advanceTicks(int ticks) {
+        for (; ticks > 0; ticks--) {
+            currentTick++;
+            int slot = (int) (currentTick & slotMask);
+
+            // 1ª passada: separa os vencidos (o listener pode agendar/cancelar à vontade depois)
+            int expired = NONE;
+            int id = slotHead[slot];
+            while (id != NONE) {
+                int following = next[id];
+                if (rounds[id] > 0) {
+                    rounds[id]--;
+                } else {
+                    unlink(id);
+                    slotOf[id] = NONE;
+                    next[id] = expired;
+                    expired = id;
+                }
+                id = following;
+            }
+
+            // 2ª passada: devolve ao pool e dispara
+            while (expired != NONE) {
+                int following = next[expired];
+                int data = payload[expired];
+                release(expired);
+                listener.onExpire(data);
+                expired = following;
+            }
+        }
+    }
+}
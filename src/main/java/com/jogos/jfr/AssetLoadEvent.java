@@ -0,0 +1,37 @@
+package com.jogos.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Carga de imagem que não estava no cache em memória do ImageLoader.
+ */
+@Name("com.jogos.AssetLoad")
+@Label("Asset Load")
+@Category({ "ReciclaMack", "Assets" })
+@Description("ImageLoader.load() fora do cache em memória")
+public class AssetLoadEvent extends jdk.jfr.Event {
+
+    @Label("Recurso")
+    public String resource;
+
+    @Label("Veio do cache em disco")
+    public boolean diskCacheHit;
+
+    @Label("Decodificação")
+    @Timespan(Timespan.NANOSECONDS)
+    public long decodeNanos;
+
+    @Label("Varredura de alpha")
+    @Timespan(Timespan.NANOSECONDS)
+    public long scanNanos;
+
+    @Label("Largura")
+    public int width;
+
+    @Label("Altura")
+    public int height;
+}
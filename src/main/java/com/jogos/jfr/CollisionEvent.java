@@ -0,0 +1,20 @@
+package com.jogos.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jogos.Collision")
+@Label("Collision")
+@Category({ "ReciclaMack", "Gameplay" })
+public class CollisionEvent extends jdk.jfr.Event {
+
+    @Label("Tipo")
+    public String itemType;
+
+    @Label("Pontuação")
+    public int score;
+
+    @Label("Vidas")
+    public int lives;
+}
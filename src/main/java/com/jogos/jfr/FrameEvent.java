@@ -0,0 +1,38 @@
+package com.jogos.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Um tick do loop principal, com a duração de cada fase.
+ */
+@Name("com.jogos.Frame")
+@Label("Game Frame")
+@Category({ "ReciclaMack", "Loop" })
+@Description("Um tick do AnimationTimer principal")
+public class FrameEvent extends jdk.jfr.Event {
+
+    @Label("Estado")
+    public String state;
+
+    @Label("Entrada")
+    @Timespan(Timespan.NANOSECONDS)
+    public long inputNanos;
+
+    @Label("Simulação")
+    @Timespan(Timespan.NANOSECONDS)
+    public long simulationNanos;
+
+    @Label("Partículas")
+    @Timespan(Timespan.NANOSECONDS)
+    public long particlesNanos;
+
+    @Label("Itens vivos")
+    public int itemCount;
+
+    @Label("Partículas vivas")
+    public int particleCount;
+}
@@ -0,0 +1,56 @@
+package com.jogos.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Ponto único dos eventos JFR do jogo.
+ * <p>
+ * Os tipos ficam registrados aqui para que o loop só crie o objeto do evento quando
+ * alguma gravação estiver com ele habilitado ({@link EventType#isEnabled()}).
+ * O perfil {@code reciclamack.jfc} vai dentro do jar; com
+ * {@code -Dreciclamack.jfr=saida.jfr} o jogo inicia sozinho uma gravação com esse perfil.
+ */
+public final class GameRecording {
+
+    public static final EventType FRAME = EventType.getEventType(FrameEvent.class);
+    public static final EventType SPAWN = EventType.getEventType(ItemSpawnEvent.class);
+    public static final EventType COLLISION = EventType.getEventType(CollisionEvent.class);
+    public static final EventType ASSET_LOAD = EventType.getEventType(AssetLoadEvent.class);
+    public static final EventType SOUND = EventType.getEventType(SoundEvent.class);
+    public static final EventType HIGH_SCORE_SAVE = EventType.getEventType(HighScoreSaveEvent.class);
+
+    private static final String PROFILE = "/com/jogos/jfr/reciclamack.jfc";
+
+    private GameRecording() { }
+
+    /**
+     * Inicia uma gravação com o perfil do jogo se {@code -Dreciclamack.jfr} estiver definido.
+     * A gravação é despejada no arquivo quando a JVM termina.
+     */
+    public static void startIfRequested() {
+        String out = System.getProperty("reciclamack.jfr");
+        if (out == null || out.isBlank()) return;
+        try (InputStream is = GameRecording.class.getResourceAsStream(PROFILE)) {
+            if (is == null) {
+                System.err.println("GameRecording: perfil não encontrado: " + PROFILE);
+                return;
+            }
+            Configuration config = Configuration.create(new InputStreamReader(is, StandardCharsets.UTF_8));
+            Recording recording = new Recording(config);
+            recording.setName("ReciclaMack");
+            recording.setDestination(Path.of(out));
+            recording.setDumpOnExit(true);
+            recording.start();
+            System.out.println("GameRecording: gravando JFR em " + out);
+        } catch (Exception e) {
+            System.err.println("GameRecording: não foi possível iniciar a gravação -> " + e.getMessage());
+        }
+    }
+}
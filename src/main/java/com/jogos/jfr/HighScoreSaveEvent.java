@@ -0,0 +1,20 @@
+package com.jogos.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jogos.HighScoreSave")
+@Label("High Score Save")
+@Category({ "ReciclaMack", "IO" })
+public class HighScoreSaveEvent extends jdk.jfr.Event {
+
+    @Label("Arquivo")
+    public String path;
+
+    @Label("Valor")
+    public int value;
+
+    @Label("Sucesso")
+    public boolean success;
+}
@@ -0,0 +1,23 @@
+package com.jogos.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jogos.ItemSpawn")
+@Label("Item Spawn")
+@Category({ "ReciclaMack", "Gameplay" })
+public class ItemSpawnEvent extends jdk.jfr.Event {
+
+    @Label("Tipo")
+    public String itemType;
+
+    @Label("X")
+    public float x;
+
+    @Label("Y")
+    public float y;
+
+    @Label("Nível")
+    public int level;
+}
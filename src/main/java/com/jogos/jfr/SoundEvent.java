@@ -0,0 +1,17 @@
+package com.jogos.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jogos.Sound")
+@Label("Sound Trigger")
+@Category({ "ReciclaMack", "Audio" })
+public class SoundEvent extends jdk.jfr.Event {
+
+    @Label("Som")
+    public String sound;
+
+    @Label("Volume")
+    public double volume;
+}
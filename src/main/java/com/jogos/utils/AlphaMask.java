@@ -0,0 +1,99 @@
+package com.jogos.utils;
+
+/**
+ * Máscara de colisão de 1 bit por pixel, empacotada em palavras de 64 bits.
+ * <p>
+ * Cada linha ocupa {@code wordsPerRow} longs; o bit {@code i} da palavra {@code w}
+ * corresponde ao pixel {@code w * 64 + i} da linha. A máscara é gerada uma única vez
+ * por (sprite, tamanho renderizado) e depois só é lida durante o jogo.
+ */
+public final class AlphaMask {
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] bits;
+
+    AlphaMask(int width, int height, long[] bits) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.bits = bits;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    public boolean isSet(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return false;
+        return (bits[y * wordsPerRow + (x >>> 6)] & (1L << (x & 63))) != 0;
+    }
+
+    /**
+     * Lê 64 bits consecutivos da linha {@code row} a partir do pixel {@code offset} (>= 0).
+     * Bits além da largura da máscara são zero.
+     */
+    private long wordAt(int row, int offset) {
+        int idx = offset >>> 6;
+        int shift = offset & 63;
+        int base = row * wordsPerRow;
+        long lo = idx < wordsPerRow ? bits[base + idx] >>> shift : 0L;
+        if (shift == 0 || idx + 1 >= wordsPerRow) return lo;
+        return lo | (bits[base + idx + 1] << (64 - shift));
+    }
+
+    /**
+     * Testa se há algum pixel opaco na linha {@code y} entre {@code x0} (inclusivo) e
+     * {@code x1} (exclusivo). O intervalo é recortado à largura da máscara.
+     */
+    public boolean anyInRow(int y, int x0, int x1) {
+        if (y < 0 || y >= height) return false;
+        if (x0 < 0) x0 = 0;
+        if (x1 > width) x1 = width;
+        for (int k = x0; k < x1; k += 64) {
+            long word = wordAt(y, k);
+            int remaining = x1 - k;
+            if (remaining < 64) word &= (1L << remaining) - 1;
+            if (word != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Testa se duas máscaras se sobrepõem em algum pixel opaco.
+     *
+     * @param a  primeira máscara
+     * @param ax posição X (pixels inteiros) do canto superior esquerdo de {@code a}
+     * @param ay posição Y de {@code a}
+     * @param b  segunda máscara
+     * @param bx posição X de {@code b}
+     * @param by posição Y de {@code b}
+     * @return true se algum pixel opaco de {@code a} coincide com um de {@code b}
+     */
+    public static boolean overlaps(AlphaMask a, int ax, int ay, AlphaMask b, int bx, int by) {
+        int dx = bx - ax;
+        int dy = by - ay;
+
+        // região de sobreposição em coordenadas de "a"
+        int x0 = Math.max(0, dx);
+        int x1 = Math.min(a.width, dx + b.width);
+        int y0 = Math.max(0, dy);
+        int y1 = Math.min(a.height, dy + b.height);
+        if (x0 >= x1 || y0 >= y1) return false;
+
+        for (int y = y0; y < y1; y++) {
+            int rowB = y - dy;
+            for (int k = x0; k < x1; k += 64) {
+                long wa = a.wordAt(y, k);
+                long wb = b.wordAt(rowB, k - dx);
+                int remaining = x1 - k;
+                if (remaining < 64) {
+                    long keep = (1L << remaining) - 1;
+                    wa &= keep;
+                }
+                if ((wa & wb) != 0) return true;
+            }
+        }
+        return false;
+    }
+}
@@ -3,6 +3,9 @@ package com.jogos.utils;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.image.Image;
 import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritablePixelFormat;
+
+import java.nio.IntBuffer;
 
 /**
  * Utilitários para trabalhar com imagens (sprites).
@@ -16,21 +19,28 @@ public class ImageUtils {
      * @return Rectangle2D com os limites visíveis (em coordenadas da imagem)
      */
     public static Rectangle2D calculateVisibleBounds(Image img) {
-        PixelReader reader = img.getPixelReader();
-        if (reader == null) {
+        int[] argb = readArgb(img);
+        if (argb == null) {
             return new Rectangle2D(0, 0, img.getWidth(), img.getHeight());
         }
+        return calculateVisibleBounds(argb, (int) img.getWidth(), (int) img.getHeight());
+    }
 
-        int w = (int) img.getWidth();
-        int h = (int) img.getHeight();
-
+    /**
+     * Mesmo cálculo de {@link #calculateVisibleBounds(Image)}, sobre pixels ARGB já lidos.
+     *
+     * @param argb pixels ARGB (não pré-multiplicados), linha a linha
+     * @param w    largura da imagem
+     * @param h    altura da imagem
+     */
+    public static Rectangle2D calculateVisibleBounds(int[] argb, int w, int h) {
         int minX = w, minY = h, maxX = 0, maxY = 0;
         boolean found = false;
 
         for (int y = 0; y < h; y++) {
+            int row = y * w;
             for (int x = 0; x < w; x++) {
-                int argb = reader.getArgb(x, y);
-                int alpha = (argb >> 24) & 0xff;
+                int alpha = argb[row + x] >>> 24;
                 if (alpha > 10) { // tolerância de transparência
                     found = true;
                     if (x < minX) minX = x;
@@ -48,4 +58,69 @@ public class ImageUtils {
 
         return new Rectangle2D(minX, minY, (maxX - minX), (maxY - minY));
     }
+
+    /**
+     * Lê todos os pixels da imagem em bloco (ARGB não pré-multiplicado).
+     *
+     * @return array com largura*altura pixels, ou null se a imagem não permite leitura
+     */
+    public static int[] readArgb(Image img) {
+        PixelReader reader = img.getPixelReader();
+        if (reader == null) return null;
+        int w = (int) img.getWidth();
+        int h = (int) img.getHeight();
+        int[] argb = new int[w * h];
+        reader.getPixels(0, 0, w, h, WritablePixelFormat.getIntArgbInstance(), argb, 0, w);
+        return argb;
+    }
+
+    /**
+     * Gera a máscara de colisão (1 bit por pixel) de uma região da imagem, já reamostrada
+     * para o tamanho em que ela é desenhada na tela.
+     *
+     * @param img      imagem original
+     * @param viewport região da imagem usada pelo ImageView (ex.: visible bounds)
+     * @param width    largura renderizada em pixels
+     * @param height   altura renderizada em pixels
+     * @return AlphaMask com os pixels opacos marcados
+     */
+    public static AlphaMask createAlphaMask(Image img, Rectangle2D viewport, int width, int height) {
+        width = Math.max(1, width);
+        height = Math.max(1, height);
+        int wordsPerRow = (width + 63) >>> 6;
+        long[] bits = new long[wordsPerRow * height];
+
+        PixelReader reader = img.getPixelReader();
+        if (reader == null) {
+            // sem acesso aos pixels: máscara cheia (equivale ao retângulo)
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    bits[y * wordsPerRow + (x >>> 6)] |= 1L << (x & 63);
+            return new AlphaMask(width, height, bits);
+        }
+
+        int vx = (int) viewport.getMinX();
+        int vy = (int) viewport.getMinY();
+        int vw = Math.max(1, (int) Math.min(viewport.getWidth(), img.getWidth() - vx));
+        int vh = Math.max(1, (int) Math.min(viewport.getHeight(), img.getHeight() - vy));
+
+        // leitura em bloco da região, em vez de getArgb() pixel a pixel
+        int[] argb = new int[vw * vh];
+        WritablePixelFormat<IntBuffer> format = WritablePixelFormat.getIntArgbInstance();
+        reader.getPixels(vx, vy, vw, vh, format, argb, 0, vw);
+
+        for (int y = 0; y < height; y++) {
+            int sy = Math.min(vh - 1, (int) ((y + 0.5) * vh / height));
+            int srcRow = sy * vw;
+            int dstRow = y * wordsPerRow;
+            for (int x = 0; x < width; x++) {
+                int sx = Math.min(vw - 1, (int) ((x + 0.5) * vw / width));
+                int alpha = argb[srcRow + sx] >>> 24;
+                if (alpha > 10) { // mesma tolerância de calculateVisibleBounds
+                    bits[dstRow + (x >>> 6)] |= 1L << (x & 63);
+                }
+            }
+        }
+        return new AlphaMask(width, height, bits);
+    }
 }
@@ -0,0 +1,88 @@
+package com.jogos.utils;
+
+/**
+ * Testes de colisão entre uma caixa orientada (item girando) e a lixeira.
+ * <p>
+ * A caixa é descrita pelo centro, pelas meias-dimensões e pelo seno/cosseno do ângulo,
+ * calculados uma vez por teste pelo chamador. {@link #overlapsRect} aplica o teorema do eixo
+ * separador nos quatro eixos possíveis (dois do retângulo, dois da caixa);
+ * {@link #overlapsMask} confirma o contato varrendo as linhas da máscara alfa da lixeira
+ * apenas no intervalo que a caixa cobre em cada linha.
+ */
+public final class OrientedBox {
+
+    private OrientedBox() { }
+
+    /**
+     * Teorema do eixo separador entre a caixa orientada e um retângulo alinhado aos eixos.
+     *
+     * @param cx  centro X da caixa
+     * @param cy  centro Y da caixa
+     * @param hw  meia largura da caixa
+     * @param hh  meia altura da caixa
+     * @param cos cosseno do ângulo da caixa
+     * @param sin seno do ângulo da caixa
+     * @param rx  canto esquerdo do retângulo
+     * @param ry  topo do retângulo
+     * @param rw  largura do retângulo
+     * @param rh  altura do retângulo
+     */
+    public static boolean overlapsRect(double cx, double cy, double hw, double hh, double cos, double sin,
+                                       double rx, double ry, double rw, double rh) {
+        double rhw = rw * 0.5;
+        double rhh = rh * 0.5;
+        double dx = rx + rhw - cx;
+        double dy = ry + rhh - cy;
+        double ac = Math.abs(cos);
+        double as = Math.abs(sin);
+
+        // eixos do retângulo (X e Y da tela)
+        if (Math.abs(dx) > rhw + hw * ac + hh * as) return false;
+        if (Math.abs(dy) > rhh + hw * as + hh * ac) return false;
+        // eixos da caixa (u = (cos, sin), v = (-sin, cos))
+        if (Math.abs(dx * cos + dy * sin) > hw + rhw * ac + rhh * as) return false;
+        return Math.abs(-dx * sin + dy * cos) <= hh + rhw * as + rhh * ac;
+    }
+
+    /**
+     * Testa se algum pixel opaco da máscara (com canto em mx, my) cai dentro da caixa.
+     * Cada linha da máscara é intersectada com a caixa (um intervalo, pois a caixa é
+     * convexa) e só esse intervalo é consultado.
+     */
+    public static boolean overlapsMask(AlphaMask mask, int mx, int my,
+                                       double cx, double cy, double hw, double hh, double cos, double sin) {
+        double extentY = hw * Math.abs(sin) + hh * Math.abs(cos);
+        int row0 = Math.max(0, (int) Math.floor(cy - extentY) - my);
+        int row1 = Math.min(mask.getHeight(), (int) Math.ceil(cy + extentY) - my);
+
+        for (int row = row0; row < row1; row++) {
+            double dy = my + row + 0.5 - cy;
+            // |cos*dx + sin*dy| <= hw  e  |-sin*dx + cos*dy| <= hh, resolvidos em dx
+            double lo = Double.NEGATIVE_INFINITY;
+            double hi = Double.POSITIVE_INFINITY;
+            if (Math.abs(cos) > 1e-9) {
+                double a = (-hw - sin * dy) / cos;
+                double b = (hw - sin * dy) / cos;
+                lo = Math.max(lo, Math.min(a, b));
+                hi = Math.min(hi, Math.max(a, b));
+            } else if (Math.abs(sin * dy) > hw) {
+                continue;
+            }
+            if (Math.abs(sin) > 1e-9) {
+                double a = (cos * dy - hh) / sin;
+                double b = (cos * dy + hh) / sin;
+                lo = Math.max(lo, Math.min(a, b));
+                hi = Math.min(hi, Math.max(a, b));
+            } else if (Math.abs(cos * dy) > hh) {
+                continue;
+            }
+            if (lo > hi) continue;
+
+            // centros de pixel dentro de [cx + lo, cx + hi]
+            int x0 = (int) Math.ceil(cx + lo - 0.5) - mx;
+            int x1 = (int) Math.floor(cx + hi - 0.5) - mx + 1;
+            if (x0 < x1 && mask.anyInRow(row, x0, x1)) return true;
+        }
+        return false;
+    }
+}
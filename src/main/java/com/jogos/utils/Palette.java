@@ -0,0 +1,89 @@
+package com.jogos.utils;
+
+/**
+ * Recoloração de um sprite, pixel a pixel (ARGB não pré-multiplicado). O alfa nunca muda,
+ * então o bounding box visível e a máscara de colisão da variante são os do original.
+ * <p>
+ * A {@link #key()} identifica a paleta no cache de imagens: duas paletas com a mesma chave
+ * precisam produzir os mesmos pixels.
+ */
+public abstract class Palette {
+
+    private final String key;
+
+    private Palette(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    /** Cor do pixel recolorido; chamado em paralelo por várias threads, sem estado. */
+    public abstract int apply(int argb);
+
+    /**
+     * Gira o matiz mantendo a luminosidade (matriz hue-rotate dos filtros de CSS/SVG).
+     * @param degrees rotação em graus
+     */
+    public static Palette hueShift(double degrees) {
+        double rad = Math.toRadians(degrees);
+        double c = Math.cos(rad);
+        double s = Math.sin(rad);
+        float m00 = (float) (0.213 + c * 0.787 - s * 0.213);
+        float m01 = (float) (0.715 - c * 0.715 - s * 0.715);
+        float m02 = (float) (0.072 - c * 0.072 + s * 0.928);
+        float m10 = (float) (0.213 - c * 0.213 + s * 0.143);
+        float m11 = (float) (0.715 + c * 0.285 + s * 0.140);
+        float m12 = (float) (0.072 - c * 0.072 - s * 0.283);
+        float m20 = (float) (0.213 - c * 0.213 - s * 0.787);
+        float m21 = (float) (0.715 - c * 0.715 + s * 0.715);
+        float m22 = (float) (0.072 + c * 0.928 + s * 0.072);
+
+        return new Palette("hue" + Math.round(degrees)) {
+            @Override
+            public int apply(int argb) {
+                int r = (argb >> 16) & 0xFF;
+                int g = (argb >> 8) & 0xFF;
+                int b = argb & 0xFF;
+                return (argb & 0xFF000000)
+                        | clamp(m00 * r + m01 * g + m02 * b) << 16
+                        | clamp(m10 * r + m11 * g + m12 * b) << 8
+                        | clamp(m20 * r + m21 * g + m22 * b);
+            }
+        };
+    }
+
+    /**
+     * Mistura cada pixel com uma cor fixa (flash de dano, brilho branco).
+     * @param rgb    cor em 0xRRGGBB
+     * @param amount 0 = original, 1 = silhueta na cor
+     */
+    public static Palette tint(int rgb, double amount) {
+        float a = (float) Math.max(0, Math.min(1, amount));
+        float tr = ((rgb >> 16) & 0xFF) * a;
+        float tg = ((rgb >> 8) & 0xFF) * a;
+        float tb = (rgb & 0xFF) * a;
+        float keep = 1 - a;
+
+        return new Palette(String.format("tint%06x-%d", rgb & 0xFFFFFF, Math.round(a * 100))) {
+            @Override
+            public int apply(int argb) {
+                return (argb & 0xFF000000)
+                        | clamp(((argb >> 16) & 0xFF) * keep + tr) << 16
+                        | clamp(((argb >> 8) & 0xFF) * keep + tg) << 8
+                        | clamp((argb & 0xFF) * keep + tb);
+            }
+        };
+    }
+
+    private static int clamp(float v) {
+        int i = Math.round(v);
+        return i < 0 ? 0 : Math.min(255, i);
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
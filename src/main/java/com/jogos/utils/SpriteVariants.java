@@ -0,0 +1,49 @@
+package com.jogos.utils;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import java.util.stream.IntStream;
+
+/**
+ * Gera variantes recoloridas de sprites (paleta trocada, matiz, flash de dano).
+ * <p>
+ * A imagem é lida de uma vez, as linhas são recoloridas em paralelo sobre o array e o
+ * resultado é escrito de volta em bloco numa {@link WritableImage}. A variante é só mais uma
+ * textura: desenhá-la custa o mesmo que o original, sem efeito nenhum no nó. Quem faz o
+ * cache por (sprite, paleta) é o {@code ImageLoader}.
+ */
+public final class SpriteVariants {
+
+    // abaixo disso dividir as linhas entre threads custa mais do que recolorir
+    private static final int PARALLEL_MIN_PIXELS = 64 * 64;
+
+    private SpriteVariants() { }
+
+    /**
+     * Cria a imagem recolorida.
+     *
+     * @return nova imagem do mesmo tamanho, ou null se a original não permite leitura
+     */
+    public static WritableImage recolor(Image src, Palette palette) {
+        int[] argb = ImageUtils.readArgb(src);
+        if (argb == null) return null;
+        int w = (int) src.getWidth();
+        int h = (int) src.getHeight();
+
+        IntStream rows = IntStream.range(0, h);
+        if (w * h >= PARALLEL_MIN_PIXELS) rows = rows.parallel();
+        rows.forEach(y -> {
+            int end = (y + 1) * w;
+            for (int i = y * w; i < end; i++) {
+                int p = argb[i];
+                if ((p >>> 24) != 0) argb[i] = palette.apply(p); // transparente fica como está
+            }
+        });
+
+        WritableImage out = new WritableImage(w, h);
+        out.getPixelWriter().setPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), argb, 0, w);
+        return out;
+    }
+}
@@ -0,0 +1,113 @@
+package com.jogos;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sobe o {@link LeaderboardServer} em uma porta livre de localhost e envia pontuações em
+ * paralelo pela API HTTP, como vários quiosques ao mesmo tempo. Confere só a correção do
+ * ranking, não a vazão (ver README, "Ranking compartilhado").
+ */
+class LeaderboardServerTest {
+
+    private static final int CLIENTS = 8;
+    private static final int SUBMITS_PER_CLIENT = 250;
+
+    @TempDir
+    Path dir;
+
+    private LeaderboardServer server;
+    private HttpClient client;
+    private String base;
+
+    @BeforeEach
+    void start() throws Exception {
+        server = new LeaderboardServer(0, dir.resolve("leaderboard.txt"));
+        server.start();
+        base = "http://localhost:" + server.getPort();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    @Test
+    void concurrentSubmitsKeepTopOrder() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            int client = c;
+            results.add(pool.submit(() -> {
+                go.await();
+                int ok = 0;
+                // pontuações intercaladas entre os clientes: 1..CLIENTS*SUBMITS_PER_CLIENT, sem repetição
+                for (int i = 0; i < SUBMITS_PER_CLIENT; i++) {
+                    int score = i * CLIENTS + client + 1;
+                    if (post("quiosque" + client, score) == 204) ok++;
+                }
+                return ok;
+            }));
+        }
+
+        go.countDown();
+        int accepted = 0;
+        for (Future<Integer> f : results) accepted += f.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        int total = CLIENTS * SUBMITS_PER_CLIENT;
+        assertEquals(total, accepted);
+
+        HttpResponse<String> top = client.send(HttpRequest.newBuilder(URI.create(base + "/scores/top?n=20")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, top.statusCode());
+        String[] lines = top.body().strip().split("\n");
+        assertEquals(20, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            int score = total - i;
+            int client = (score - 1) % CLIENTS;
+            assertEquals(score + "\tquiosque" + client, lines[i]);
+        }
+    }
+
+    @Test
+    void tiesKeepSubmissionOrder() throws Exception {
+        assertEquals(204, post("primeiro", 10));
+        assertEquals(204, post("segundo", 10));
+        assertEquals(204, post("maior", 11));
+        assertEquals(List.of("11\tmaior", "10\tprimeiro", "10\tsegundo"), server.top(3));
+    }
+
+    @Test
+    void rejectsInvalidScore() throws Exception {
+        assertEquals(400, post("x", "abc"));
+        assertTrue(server.top(10).isEmpty());
+    }
+
+    private int post(String name, Object score) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(base + "/scores?name=" + name + "&score=" + score))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(req, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,113 @@
+package com.jogos;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Regressão de alocação do caminho quente da simulação: itens caem sem parar sobre a
+ * lixeira (física, vento, ímã, colisão, fila de eventos e de comandos), com o relógio
+ * manual, e os bytes alocados pela thread de simulação e pela do teste (que faz o papel do
+ * FX: consome eventos, recria itens e confirma frames) são medidos com
+ * {@code ThreadMXBean.getThreadAllocatedBytes}. Acima do orçamento por passo, falha.
+ */
+class SimulationAllocationTest {
+
+    private static final int ITEMS = 120;
+    private static final int WARMUP_STEPS = 20_000;
+    private static final int MEASURED_STEPS = 50_000;
+    private static final long BUDGET_BYTES_PER_STEP = 8;
+
+    private static final double WORLD_W = 1280;
+    private static final double WORLD_H = 720;
+    private static final double BIN_X = 560;
+    private static final double BIN_Y = 600;
+
+    private final Collector.Hitbox bin = new Collector.Hitbox(160, 100, null);
+    private final ArrayDeque<GameItem> free = new ArrayDeque<>();
+    private Simulation sim;
+    private com.sun.management.ThreadMXBean threads;
+    private int drops = 0;
+
+    @BeforeEach
+    void start() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "medição de alocação por thread indisponível nesta JVM");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        sim = new Simulation(ITEMS);
+        sim.setManualClock(true);
+        sim.setRunning(true);
+        sim.setSeed(1);
+        // tipos sem sprite (power-ups): o ícone é desenhado com formas, sem carregar imagens
+        ItemType[] types = { ItemType.MAGNET, ItemType.SLOW_MOTION, ItemType.SHIELD, ItemType.WIDE_BIN };
+        for (int i = 0; i < ITEMS; i++) drop(new GameItem(types[i % types.length], 0, 0, 48));
+        frame(0);
+    }
+
+    @AfterEach
+    void stop() {
+        if (sim != null) sim.shutdown();
+    }
+
+    @Test
+    void steadyStateStepsStayWithinBudget() {
+        run(WARMUP_STEPS); // JIT e filas no regime
+
+        long simThread = sim.getThread().getId();
+        long testThread = Thread.currentThread().getId();
+        long simBefore = threads.getThreadAllocatedBytes(simThread);
+        long testBefore = threads.getThreadAllocatedBytes(testThread);
+        run(MEASURED_STEPS);
+        long simBytes = threads.getThreadAllocatedBytes(simThread) - simBefore;
+        long testBytes = threads.getThreadAllocatedBytes(testThread) - testBefore;
+
+        double perStep = (double) (simBytes + testBytes) / MEASURED_STEPS;
+        assertTrue(drops > MEASURED_STEPS / 10, "poucos itens coletados/perdidos: o teste não exercitou os eventos");
+        assertTrue(perStep <= BUDGET_BYTES_PER_STEP, String.format(
+                "%.2f bytes/passo (simulação %d, FX %d em %d passos), orçamento %d",
+                perStep, simBytes, testBytes, MEASURED_STEPS, BUDGET_BYTES_PER_STEP));
+    }
+
+    /** Um passo por frame, como o FX a 120 fps: eventos, novos itens e parâmetros do frame. */
+    private void run(int steps) {
+        for (int s = 0; s < steps; s++) {
+            sim.stepManually(1);
+            while (sim.hasEvent()) {
+                GameItem gi = sim.itemFor(sim.peekEventHandle());
+                sim.popEvent();
+                if (gi == null) continue; // EVENT_FRAME
+                sim.release(gi);
+                free.add(gi);
+            }
+            while (!free.isEmpty()) drop(free.poll());
+            frame(s);
+        }
+    }
+
+    private void frame(int s) {
+        sim.setWorldSize(WORLD_W, WORLD_W, WORLD_H);
+        sim.setFallSpeed(400);
+        sim.setTimeScale(1.0);
+        sim.setHitbox(0, bin, BIN_X, BIN_Y);
+        // ímã ligado metade do tempo, para passar pelos dois caminhos
+        sim.setMagnet((s & 1024) == 0 ? BIN_X + 80 : Double.NaN, Double.NaN, WORLD_H * 0.33, WORLD_W * 0.6);
+        sim.commitFrame();
+    }
+
+    private void drop(GameItem gi) {
+        int n = drops++;
+        gi.x = (n * 389) % (WORLD_W - 48);
+        gi.y = -48 - (n * 53) % 400;
+        gi.angle = 0;
+        sim.spawn(gi, 0, 160, (n & 1) == 0 ? 1.5 : -1.5);
+    }
+}